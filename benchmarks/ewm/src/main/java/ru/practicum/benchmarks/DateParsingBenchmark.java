@@ -0,0 +1,34 @@
+package ru.practicum.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнивает разбор дат из параметров запроса так, как это делают EventServiceImpl.fromString
+ * и CommentServiceImpl.dateFromString (форматтер на каждый вызов), с общим форматтером.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateParsingBenchmark {
+    private static final String PATTERN = "yyyy-MM-dd HH:mm:ss";
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(PATTERN);
+
+    private final String date = "2024-05-17 18:30:00";
+
+    @Benchmark
+    public LocalDateTime formatterPerCall() {
+        return LocalDateTime.parse(date, DateTimeFormatter.ofPattern(PATTERN));
+    }
+
+    @Benchmark
+    public LocalDateTime sharedFormatter() {
+        return LocalDateTime.parse(date, FORMATTER);
+    }
+}
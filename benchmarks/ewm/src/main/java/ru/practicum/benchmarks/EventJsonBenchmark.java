@@ -0,0 +1,68 @@
+package ru.practicum.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.dto.CommentEventDto;
+import ru.practicum.dto.EventDto;
+import ru.practicum.mapper.CategoryMapper;
+import ru.practicum.mapper.CommentMapper;
+import ru.practicum.mapper.EventMapper;
+import ru.practicum.mapper.UserMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventJsonBenchmark {
+    private static final int COMMENTS_PER_EVENT = 20;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private List<EventDto> eventPage;
+    private List<CommentEventDto> commentEventPage;
+
+    @Setup
+    public void setUp() {
+        EventMapper mapper = new EventMapper();
+        UserMapper userMapper = new UserMapper();
+        CategoryMapper categoryMapper = new CategoryMapper();
+        CommentMapper commentMapper = new CommentMapper();
+        eventPage = EwmDataset.events(size).stream()
+                .map(event -> mapper.toEventDto(event,
+                        userMapper.toUserShortDto(event.getInitiator()),
+                        categoryMapper.toCategoryDto(event.getCategory())))
+                .collect(Collectors.toList());
+        commentEventPage = EwmDataset.events(size).stream()
+                .map(event -> {
+                    CommentEventDto dto = mapper.toCommentEventDto(event,
+                            userMapper.toUserShortDto(event.getInitiator()),
+                            categoryMapper.toCategoryDto(event.getCategory()));
+                    dto.setCommentDtos(EwmDataset.comments(event, COMMENTS_PER_EVENT).stream()
+                            .map(commentMapper::toCommentDto)
+                            .collect(Collectors.toList()));
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] eventPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(eventPage);
+    }
+
+    @Benchmark
+    public byte[] commentEventPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(commentEventPage);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.dto.EventDto;
+import ru.practicum.dto.EventShortDto;
+import ru.practicum.mapper.CategoryMapper;
+import ru.practicum.mapper.EventMapper;
+import ru.practicum.mapper.UserMapper;
+import ru.practicum.model.Event;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventMappingBenchmark {
+    private final EventMapper mapper = new EventMapper();
+    private final UserMapper userMapper = new UserMapper();
+    private final CategoryMapper categoryMapper = new CategoryMapper();
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private List<Event> events;
+
+    @Setup
+    public void setUp() {
+        events = EwmDataset.events(size);
+    }
+
+    @Benchmark
+    public List<EventDto> toEventDtoList() {
+        return events.stream()
+                .map(event -> mapper.toEventDto(event,
+                        userMapper.toUserShortDto(event.getInitiator()),
+                        categoryMapper.toCategoryDto(event.getCategory())))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<EventShortDto> toEventShortDtoList() {
+        return events.stream()
+                .map(event -> mapper.toEventShortDto(event,
+                        userMapper.toUserShortDto(event.getInitiator()),
+                        categoryMapper.toCategoryDto(event.getCategory())))
+                .collect(Collectors.toList());
+    }
+}
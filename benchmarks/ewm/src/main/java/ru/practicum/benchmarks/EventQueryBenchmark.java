@@ -0,0 +1,83 @@
+package ru.practicum.benchmarks;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.EwmService;
+import ru.practicum.enums.SortEvent;
+import ru.practicum.model.Event;
+import ru.practicum.model.EventCursor;
+import ru.practicum.repository.EventRepository;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventQueryBenchmark {
+    @Param({"100000"})
+    private int events;
+
+    @Param({"10", "100"})
+    private int size;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private EventRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        context = new SpringApplicationBuilder(EwmService.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=postgres",
+                        "--client.url=http://localhost:9090",
+                        "--ewm.views.refresh-enabled=false",
+                        "--sql.accounting.enabled=false",
+                        "--logging.level.root=WARN");
+        repository = context.getBean(EventRepository.class);
+        EwmDataset.seed(context.getBean(JdbcTemplate.class), events);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public List<Event> publicFirstPageByEventDate() {
+        return repository.findAllEventsForUserBy(null, null, null, LocalDateTime.now(), null, false,
+                SortEvent.EVENT_DATE, EventCursor.first(SortEvent.EVENT_DATE), PageRequest.of(0, size));
+    }
+
+    @Benchmark
+    public List<Event> publicDeepOffsetByViews() {
+        return repository.findAllEventsForUserBy(null, null, null, LocalDateTime.now(), null, false,
+                SortEvent.VIEWS, null, PageRequest.of(100, size));
+    }
+
+    @Benchmark
+    public List<Event> publicTextSearch() {
+        return repository.findAllEventsForUserBy("событие 42", null, null, LocalDateTime.now(), null, true,
+                null, null, PageRequest.of(0, size));
+    }
+
+    @Benchmark
+    public List<Event> adminByState() {
+        return repository.findAllEventsForAdminBy(null, List.of(ru.practicum.enums.State.PUBLISHED), null, null, null, null,
+                PageRequest.of(0, size));
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.benchmarks;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.EwmService;
+import ru.practicum.model.Event;
+import ru.practicum.repository.EventRepository;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Публичный поиск по тексту в режимах LIKE и FULL_TEXT: редкое слово (md5 из аннотации одного события) и слово,
+ * которое есть в описании каждого события.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventSearchBenchmark {
+    @Param({"1000000"})
+    private int events;
+
+    @Param({"LIKE", "FULL_TEXT"})
+    private String mode;
+
+    @Param({"a1d0c6e83f027327d8461063f4ac58a6", "описание"})
+    private String text;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private EventRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.builder()
+                .setLocaleConfig("encoding", "UTF8")
+                .setLocaleConfig("locale", "C.UTF-8")
+                .start();
+        context = new SpringApplicationBuilder(EwmService.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=postgres",
+                        "--client.url=http://localhost:9090",
+                        "--ewm.views.refresh-enabled=false",
+                        "--ewm.events.search-mode=" + mode,
+                        "--sql.accounting.enabled=false",
+                        "--logging.level.root=WARN");
+        repository = context.getBean(EventRepository.class);
+        EwmDataset.seed(context.getBean(JdbcTemplate.class), events);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public List<Event> firstPage() {
+        return repository.findAllEventsForUserBy(text, null, null, LocalDateTime.now(), null, false,
+                null, null, PageRequest.of(0, 10));
+    }
+}
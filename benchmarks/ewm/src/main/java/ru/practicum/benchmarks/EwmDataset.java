@@ -0,0 +1,93 @@
+package ru.practicum.benchmarks;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.enums.State;
+import ru.practicum.model.Category;
+import ru.practicum.model.Comment;
+import ru.practicum.model.Event;
+import ru.practicum.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class EwmDataset {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 17, 18, 30);
+    private static final int CATEGORIES = 50;
+
+    private EwmDataset() {
+    }
+
+    public static List<Event> events(int size) {
+        List<Event> events = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            events.add(Event.builder()
+                    .id(i)
+                    .title("Событие " + i)
+                    .annotation("Аннотация события " + i + ", достаточно длинная для реальной карточки")
+                    .description("Описание события " + i + ". ".repeat(50))
+                    .category(Category.builder().id(1 + i % CATEGORIES).name("Категория " + i % CATEGORIES).build())
+                    .initiator(User.builder().id(i).name("Пользователь " + i).email("user" + i + "@mail.ru").build())
+                    .paid(i % 3 == 0)
+                    .eventDate(NOW.plusDays(i % 365))
+                    .createdOn(NOW.minusDays(30))
+                    .publishedOn(NOW.minusDays(10))
+                    .participantLimit((int) (i % 4) * 50)
+                    .requestModeration(true)
+                    .state(State.PUBLISHED)
+                    .lat(55.75f)
+                    .lon(37.62f)
+                    .confirmedRequests((int) (i % 50))
+                    .views(i * 7919 % 100_000)
+                    .build());
+        }
+        return events;
+    }
+
+    public static List<Comment> comments(Event event, int size) {
+        List<Comment> comments = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            comments.add(Comment.builder()
+                    .id(event.getId() * size + i)
+                    .text("Комментарий " + i + " к событию " + event.getId())
+                    .event(event)
+                    .author(event.getInitiator())
+                    .created(NOW.minusHours(i))
+                    .build());
+        }
+        return comments;
+    }
+
+    public static void seed(JdbcTemplate jdbcTemplate, int events) {
+        int users = Math.max(events / 10, 1);
+        jdbcTemplate.execute("select setseed(0.42)");
+        jdbcTemplate.update("insert into users (name, email) " +
+                "select 'Пользователь ' || i, 'user' || i || '@mail.ru' from generate_series(1, ?) i", users);
+        jdbcTemplate.update("insert into categories (name) " +
+                "select 'Категория ' || i from generate_series(1, ?) i", CATEGORIES);
+        jdbcTemplate.update("insert into events (title, annotation, category_id, paid, event_date, user_id, " +
+                "description, participant_limit, state, created_on, published_on, lat, lon, request_moderation, " +
+                "confirmed_requests, views) " +
+                "select 'Событие ' || i, 'Аннотация события ' || i || ' ' || md5(i::text), 1 + i % ?, i % 3 = 0, " +
+                "now() + (i % 365) * interval '1 day', 1 + i % ?, repeat('Описание ' || md5(i::text) || ' ', 10), " +
+                "(i % 4) * 50, case when i % 10 = 0 then 'PENDING' else 'PUBLISHED' end, " +
+                "now() - interval '30 days', now() - interval '10 days', 55.75, 37.62, true, i % 50, " +
+                "floor(100000 * random() ^ 4) from generate_series(1, ?) i", CATEGORIES, users, events);
+        jdbcTemplate.update("insert into comments (text, event_id, author_id, created) " +
+                "select 'Комментарий ' || i, 1 + floor(? * random() ^ 3), 1 + i % ?, now() - i * interval '1 minute' " +
+                "from generate_series(1, ?) i", events, users, events * 2);
+        jdbcTemplate.execute("analyze");
+    }
+
+    /**
+     * Создаёт {@code requests} новых пользователей и по одной заявке в статусе PENDING от каждого из них.
+     */
+    public static List<Long> seedRequests(JdbcTemplate jdbcTemplate, long eventId, int requests) {
+        jdbcTemplate.update("insert into users (name, email) select 'Участник ' || i, 'member' || i || '@mail.ru' " +
+                "from generate_series(1, ?) i", requests);
+        jdbcTemplate.update("insert into requests (user_id, event_id, status, created) " +
+                "select id, ?, 'PENDING', now() from users where email like 'member%'", eventId);
+        jdbcTemplate.execute("analyze");
+        return jdbcTemplate.queryForList("select id from requests where event_id = ? order by id", Long.class, eventId);
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.benchmarks;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.EwmService;
+import ru.practicum.dto.UpdateRequestDtoRequest;
+import ru.practicum.dto.UpdateRequestDtoResult;
+import ru.practicum.enums.Status;
+import ru.practicum.service.RequestService;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Одно подтверждение всех заявок на событие, у которого мест хватает на половину из них: остальные заявки
+ * отклоняются тем же вызовом. Перед каждой итерацией заявки возвращаются в PENDING.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class RequestConfirmBenchmark {
+    @Param({"1000", "10000"})
+    private int requests;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private RequestService service;
+    private JdbcTemplate jdbcTemplate;
+    private long eventId;
+    private long initiatorId;
+    private UpdateRequestDtoRequest confirmAll;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        context = new SpringApplicationBuilder(EwmService.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=postgres",
+                        "--client.url=http://localhost:9090",
+                        "--ewm.views.refresh-enabled=false",
+                        "--sql.accounting.enabled=false",
+                        "--logging.level.root=WARN");
+        service = context.getBean(RequestService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        EwmDataset.seed(jdbcTemplate, 1000);
+        eventId = jdbcTemplate.queryForObject("select min(id) from events where state = 'PUBLISHED'", Long.class);
+        initiatorId = jdbcTemplate.queryForObject("select user_id from events where id = ?", Long.class, eventId);
+        jdbcTemplate.update("update events set participant_limit = ? where id = ?", requests / 2, eventId);
+        List<Long> ids = EwmDataset.seedRequests(jdbcTemplate, eventId, requests);
+        confirmAll = UpdateRequestDtoRequest.builder().requestIds(ids).status(Status.CONFIRMED).build();
+    }
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        jdbcTemplate.update("update requests set status = 'PENDING' where event_id = ?", eventId);
+        jdbcTemplate.update("update events set confirmed_requests = 0 where id = ?", eventId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public UpdateRequestDtoResult confirmAll() {
+        return service.update(eventId, initiatorId, confirmAll);
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.benchmarks;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.NewHitDto;
+import ru.practicum.StatsService;
+import ru.practicum.service.StatService;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запись пачки хитов по одному через {@link StatService#create} против одного вызова
+ * {@link StatService#createAll}, как это делает {@code POST /hit/batch}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HitIngestBenchmark {
+    @Param({"100", "1000"})
+    private int batchSize;
+
+    @Param({"1000"})
+    private int uris;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private StatService service;
+    private JdbcTemplate jdbcTemplate;
+    private List<NewHitDto> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        context = new SpringApplicationBuilder(StatsService.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=postgres",
+                        "--stats.rollup.enabled=false",
+                        "--stats.views-cache.enabled=false",
+                        "--sql.accounting.enabled=false",
+                        "--logging.level.root=WARN");
+        service = context.getBean(StatService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        LocalDateTime now = LocalDateTime.now();
+        batch = new ArrayList<>(batchSize);
+        for (int i = 1; i <= batchSize; i++) {
+            batch.add(NewHitDto.builder()
+                    .app(StatsDataset.APP)
+                    .uri("/events/" + (i % uris + 1))
+                    .ip("10.1." + i % 250 + "." + i / 250 % 250)
+                    .timestamp(now.minusSeconds(i))
+                    .build());
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("truncate hits");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public int oneByOne() {
+        batch.forEach(service::create);
+        return batch.size();
+    }
+
+    @Benchmark
+    public Long batch() {
+        return service.createAll(batch);
+    }
+}
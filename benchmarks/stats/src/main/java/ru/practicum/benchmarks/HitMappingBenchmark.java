@@ -0,0 +1,44 @@
+package ru.practicum.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.HitDto;
+import ru.practicum.StatsDto;
+import ru.practicum.model.Hit;
+import ru.practicum.model.HitMapper;
+import ru.practicum.model.Stats;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HitMappingBenchmark {
+    private final HitMapper mapper = new HitMapper();
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private List<Hit> hits;
+    private List<Stats> stats;
+
+    @Setup
+    public void setUp() {
+        hits = StatsDataset.hits(size);
+        stats = StatsDataset.stats(size);
+    }
+
+    @Benchmark
+    public List<HitDto> toHitDtoList() {
+        return hits.stream().map(mapper::toHitDto).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<StatsDto> toStatsDtoList() {
+        return stats.stream().map(mapper::toStatsDto).collect(Collectors.toList());
+    }
+}
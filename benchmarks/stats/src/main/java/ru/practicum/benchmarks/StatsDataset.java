@@ -0,0 +1,65 @@
+package ru.practicum.benchmarks;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.model.Hit;
+import ru.practicum.model.HitApp;
+import ru.practicum.model.HitUri;
+import ru.practicum.model.Stats;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class StatsDataset {
+    public static final String APP = "ewm-service";
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 17, 18, 30);
+
+    private StatsDataset() {
+    }
+
+    public static List<Hit> hits(int size) {
+        HitApp app = HitApp.builder().id(1).name(APP).build();
+        List<Hit> hits = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            hits.add(Hit.builder()
+                    .id(i)
+                    .app(app)
+                    .uri(HitUri.builder().id(i).uri("/events/" + i).build())
+                    .ip("10.0." + i % 250 + "." + i / 250 % 250)
+                    .timestamp(NOW.minusSeconds(i))
+                    .build());
+        }
+        return hits;
+    }
+
+    public static List<Stats> stats(int size) {
+        List<Stats> stats = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            stats.add(new Stats(APP, "/events/" + i, 100_000 / i));
+        }
+        return stats;
+    }
+
+    public static List<String> uris(int size) {
+        List<String> uris = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            uris.add("/events/" + i);
+        }
+        return uris;
+    }
+
+    public static void seed(JdbcTemplate jdbcTemplate, int hits, int uris) {
+        jdbcTemplate.execute("select setseed(0.42)");
+        jdbcTemplate.update("insert into apps (name) values (?) on conflict (name) do nothing", APP);
+        jdbcTemplate.update("insert into uris (uri) select '/events/' || i from generate_series(1, ?) i " +
+                "on conflict (uri) do nothing", uris);
+        jdbcTemplate.update("insert into hits (app_id, uri_id, ip, time) " +
+                "select (select id from apps where name = ?), uris.id, " +
+                "('10.' || (i % 200) || '.' || (i / 200 % 250) || '.' || (i % 250))::inet, " +
+                "now() - floor(random() * 30 * 86400) * interval '1 second' " +
+                "from generate_series(1, ?) i " +
+                "join uris on uris.uri = '/events/' || (1 + floor(? * random() ^ 3)::bigint)", APP, hits, uris);
+        jdbcTemplate.execute("analyze");
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.benchmarks;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.StatsDto;
+import ru.practicum.StatsService;
+import ru.practicum.service.StatService;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatsQueryBenchmark {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Param({"1000000"})
+    private int hits;
+
+    @Param({"10000"})
+    private int uris;
+
+    @Param({"false", "true"})
+    private boolean unique;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private StatService service;
+    private String start;
+    private String end;
+    private List<String> pageUris;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        context = new SpringApplicationBuilder(StatsService.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=postgres",
+                        "--stats.rollup.enabled=false",
+                        "--stats.views-cache.enabled=false",
+                        "--sql.accounting.enabled=false",
+                        "--logging.level.root=WARN");
+        service = context.getBean(StatService.class);
+        StatsDataset.seed(context.getBean(JdbcTemplate.class), hits, uris);
+        LocalDateTime now = LocalDateTime.now();
+        start = now.minusDays(7).format(FORMATTER);
+        end = now.format(FORMATTER);
+        pageUris = StatsDataset.uris(100);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public List<StatsDto> allUris() {
+        return service.getStatus(start, end, null, unique);
+    }
+
+    @Benchmark
+    public List<StatsDto> pageOfUris() {
+        return service.getStatus(start, end, pageUris, unique);
+    }
+
+    @Benchmark
+    public Map<String, Long> viewsForPage() {
+        return service.getViews(pageUris);
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.generator;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+
+/**
+ * Заполняет базы ewm и stats воспроизводимым набором данных для нагрузочных замеров.
+ * Схема должна быть создана миграциями сервисов, параметры передаются в виде --key=value.
+ */
+@Slf4j
+public class DataGenerator {
+    public static void main(String[] args) throws Exception {
+        GeneratorOptions options = GeneratorOptions.parse(args);
+        log.info("Генерация данных: seed {}, базовое время {}", options.getSeed(), options.getBaseTime());
+        if (!options.isSkipEwm()) {
+            try (Connection connection = DriverManager.getConnection(options.getEwmUrl(), options.getEwmUser(),
+                    options.getEwmPassword())) {
+                new EwmGenerator(connection, options).generate();
+            }
+        }
+        if (!options.isSkipStats()) {
+            try (Connection connection = DriverManager.getConnection(options.getStatsUrl(), options.getStatsUser(),
+                    options.getStatsPassword())) {
+                new StatsGenerator(connection, options).generate();
+            }
+        }
+    }
+}
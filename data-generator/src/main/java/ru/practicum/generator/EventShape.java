@@ -0,0 +1,36 @@
+package ru.practicum.generator;
+
+/**
+ * Детерминированные свойства события, которые нужны и ewm, и stats генератору без хранения массивов:
+ * инициатор и состояние вычисляются из seed и id события.
+ */
+public final class EventShape {
+    private EventShape() {
+    }
+
+    public static long initiator(long seed, long eventId, int users) {
+        return 1 + Math.floorMod(mix(seed ^ eventId), users);
+    }
+
+    public static String state(long seed, long eventId) {
+        switch ((int) Math.floorMod(mix(seed + eventId * 31), 10L)) {
+            case 0:
+                return "PENDING";
+            case 1:
+                return "CANCELED";
+            default:
+                return "PUBLISHED";
+        }
+    }
+
+    public static boolean isPublished(long seed, long eventId) {
+        return "PUBLISHED".equals(state(seed, eventId));
+    }
+
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
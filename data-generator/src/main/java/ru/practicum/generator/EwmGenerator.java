@@ -0,0 +1,229 @@
+package ru.practicum.generator;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+@Slf4j
+@RequiredArgsConstructor
+public class EwmGenerator {
+    private static final String[] TABLES = {"users", "categories", "events", "requests", "compilations", "comments"};
+    private static final String[] WORDS = {"концерт", "выставка", "поход", "лекция", "кино", "театр", "фестиваль",
+            "мастер-класс", "экскурсия", "встреча", "джаз", "рок", "классика", "живопись", "фотография", "горы",
+            "река", "город", "музей", "парк", "вечер", "утро", "семья", "дети", "друзья", "музыка", "танцы", "йога",
+            "бег", "велосипед", "книга", "история", "наука", "космос", "кухня", "вино", "кофе", "программирование",
+            "стартап", "дизайн", "архитектура", "природа", "зима", "лето", "весна", "осень", "праздник", "ярмарка"};
+
+    private final Connection connection;
+    private final GeneratorOptions options;
+
+    public void generate() throws SQLException, IOException {
+        checkEmpty();
+        connection.setAutoCommit(false);
+        SplittableRandom random = new SplittableRandom(options.getSeed());
+        users(random.split());
+        categories(random.split());
+        events(random.split());
+        requests(random.split());
+        comments(random.split());
+        compilations(random.split());
+        finish();
+    }
+
+    private void users(SplittableRandom random) throws SQLException, IOException {
+        try (CopyWriter copy = new CopyWriter(connection, "users", "id", "name", "email")) {
+            for (long id = 1; id <= options.getUsers(); id++) {
+                copy.row(id, capitalize(word(random)) + " " + id, "user" + id + "@example.com");
+            }
+        }
+        commit("users", options.getUsers());
+    }
+
+    private void categories(SplittableRandom random) throws SQLException, IOException {
+        try (CopyWriter copy = new CopyWriter(connection, "categories", "id", "name")) {
+            for (long id = 1; id <= options.getCategories(); id++) {
+                copy.row(id, capitalize(word(random)) + " " + id);
+            }
+        }
+        commit("categories", options.getCategories());
+    }
+
+    private void events(SplittableRandom random) throws SQLException, IOException {
+        ZipfSampler categories = new ZipfSampler(options.getCategories(), 0.8);
+        LocalDateTime base = options.getBaseTime();
+        try (CopyWriter copy = new CopyWriter(connection, "events", "id", "title", "annotation", "category_id",
+                "paid", "event_date", "user_id", "description", "participant_limit", "state", "created_on",
+                "published_on", "lat", "lon", "request_moderation", "confirmed_requests", "views")) {
+            for (long id = 1; id <= options.getEvents(); id++) {
+                String state = EventShape.state(options.getSeed(), id);
+                LocalDateTime eventDate = base.plusMinutes(random.nextLong(-60L * 24 * 60, 180L * 24 * 60));
+                LocalDateTime createdOn = eventDate.minusMinutes(random.nextLong(10L * 24 * 60, 60L * 24 * 60));
+                copy.row(id,
+                        capitalize(text(random, 2, 5)),
+                        capitalize(text(random, 6, 15)),
+                        categories.sample(random),
+                        random.nextInt(10) < 4,
+                        eventDate,
+                        EventShape.initiator(options.getSeed(), id, options.getUsers()),
+                        capitalize(text(random, 20, 60)),
+                        random.nextInt(10) < 3 ? 0 : random.nextInt(10, 500),
+                        state,
+                        createdOn,
+                        "PUBLISHED".equals(state) ? createdOn.plusDays(1) : null,
+                        55.5 + random.nextDouble(),
+                        37.3 + random.nextDouble(),
+                        random.nextInt(10) < 7,
+                        0,
+                        0);
+            }
+        }
+        commit("events", options.getEvents());
+    }
+
+    private void requests(SplittableRandom random) throws SQLException, IOException {
+        ZipfSampler events = new ZipfSampler(options.getEvents(), options.getEventSkew());
+        int[] perEvent = new int[options.getEvents() + 1];
+        LocalDateTime base = options.getBaseTime();
+        long id = 0;
+        try (CopyWriter copy = new CopyWriter(connection, "requests", "id", "user_id", "event_id", "status",
+                "created")) {
+            while (id < options.getRequests()) {
+                long eventId = publishedEvent(events, random);
+                int number = perEvent[(int) eventId];
+                if (number >= options.getUsers() - 1) {
+                    continue;
+                }
+                perEvent[(int) eventId]++;
+                long initiator = EventShape.initiator(options.getSeed(), eventId, options.getUsers());
+                long userId = 1 + (initiator + number) % options.getUsers();
+                copy.row(++id, userId, eventId, requestStatus(random),
+                        base.minusMinutes(random.nextLong(90L * 24 * 60)));
+            }
+        }
+        commit("requests", id);
+    }
+
+    private void comments(SplittableRandom random) throws SQLException, IOException {
+        ZipfSampler events = new ZipfSampler(options.getEvents(), options.getEventSkew());
+        ZipfSampler authors = new ZipfSampler(options.getUsers(), options.getCommenterSkew());
+        LocalDateTime base = options.getBaseTime();
+        try (CopyWriter copy = new CopyWriter(connection, "comments", "id", "text", "event_id", "author_id",
+                "created")) {
+            for (long id = 1; id <= options.getComments(); id++) {
+                copy.row(id, capitalize(text(random, 3, 30)), publishedEvent(events, random), authors.sample(random),
+                        base.minusMinutes(random.nextLong(90L * 24 * 60)));
+            }
+        }
+        commit("comments", options.getComments());
+    }
+
+    private void compilations(SplittableRandom random) throws SQLException, IOException {
+        ZipfSampler events = new ZipfSampler(options.getEvents(), options.getEventSkew());
+        try (CopyWriter copy = new CopyWriter(connection, "compilations", "id", "title", "pinned")) {
+            for (long id = 1; id <= options.getCompilations(); id++) {
+                copy.row(id, capitalize(text(random, 1, 4)), random.nextInt(100) < 5);
+            }
+        }
+        long links = 0;
+        try (CopyWriter copy = new CopyWriter(connection, "compilations_events", "compilations_id", "events_id")) {
+            Set<Long> eventIds = new HashSet<>();
+            int perCompilation = Math.min(options.getEventsPerCompilation(), options.getEvents());
+            for (long id = 1; id <= options.getCompilations(); id++) {
+                eventIds.clear();
+                for (int attempt = 0; eventIds.size() < perCompilation && attempt < perCompilation * 10; attempt++) {
+                    eventIds.add(publishedEvent(events, random));
+                }
+                for (Long eventId : eventIds) {
+                    copy.row(id, eventId);
+                }
+            }
+            links = copy.getRows();
+        }
+        commit("compilations", options.getCompilations());
+        log.info("Связей подборок с событиями: {}", links);
+    }
+
+    private void finish() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("update events set confirmed_requests = counts.confirmed from (" +
+                    "select event_id, count(*) as confirmed from requests where status = 'CONFIRMED' " +
+                    "group by event_id) counts where events.id = counts.event_id");
+            for (String table : TABLES) {
+                statement.execute("select setval(pg_get_serial_sequence('" + table + "', 'id'), " +
+                        "coalesce((select max(id) from " + table + "), 0) + 1, false)");
+            }
+            connection.commit();
+            connection.setAutoCommit(true);
+            statement.execute("vacuum analyze");
+        }
+        log.info("База ewm заполнена");
+    }
+
+    private void checkEmpty() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String table : TABLES) {
+                try (ResultSet rs = statement.executeQuery("select exists (select 1 from " + table + ")")) {
+                    rs.next();
+                    if (rs.getBoolean(1)) {
+                        throw new IllegalStateException("Таблица " + table
+                                + " не пуста, генератор заполняет только пустую базу");
+                    }
+                }
+            }
+        }
+    }
+
+    private void commit(String table, long rows) throws SQLException {
+        connection.commit();
+        log.info("Таблица {} заполнена: {} строк", table, rows);
+    }
+
+    private long publishedEvent(ZipfSampler events, SplittableRandom random) {
+        long eventId = events.sample(random);
+        for (int attempt = 0; attempt < 100 && !EventShape.isPublished(options.getSeed(), eventId); attempt++) {
+            eventId = events.sample(random);
+        }
+        return eventId;
+    }
+
+    private static String requestStatus(SplittableRandom random) {
+        int value = random.nextInt(100);
+        if (value < 60) {
+            return "CONFIRMED";
+        } else if (value < 90) {
+            return "PENDING";
+        } else if (value < 95) {
+            return "REJECTED";
+        }
+        return "CANCELED";
+    }
+
+    private static String text(SplittableRandom random, int minWords, int maxWords) {
+        int words = random.nextInt(minWords, maxWords + 1);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(word(random));
+        }
+        return text.toString();
+    }
+
+    private static String word(SplittableRandom random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static String capitalize(String text) {
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+}
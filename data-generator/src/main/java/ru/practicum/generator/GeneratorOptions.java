@@ -0,0 +1,121 @@
+package ru.practicum.generator;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class GeneratorOptions {
+    String ewmUrl = "jdbc:postgresql://localhost:6542/ewm";
+    String ewmUser = "users";
+    String ewmPassword = "root";
+    String statsUrl = "jdbc:postgresql://localhost:6541/stats";
+    String statsUser = "users";
+    String statsPassword = "root";
+    long seed = 42;
+    LocalDateTime baseTime = LocalDate.now().atStartOfDay();
+    int users = 1_000_000;
+    int categories = 1_000;
+    int events = 2_000_000;
+    int requests = 5_000_000;
+    int comments = 5_000_000;
+    int compilations = 10_000;
+    int eventsPerCompilation = 10;
+    long hits = 20_000_000;
+    int hitDays = 90;
+    double eventSkew = 1.1;
+    double commenterSkew = 1.2;
+    double uriSkew = 1.1;
+    boolean skipEwm = false;
+    boolean skipStats = false;
+
+    public static GeneratorOptions parse(String[] args) {
+        GeneratorOptions options = new GeneratorOptions();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Неверный аргумент " + arg + ", ожидается --key=value");
+            }
+            String key = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+            switch (key) {
+                case "ewm-url":
+                    options.ewmUrl = value;
+                    break;
+                case "ewm-user":
+                    options.ewmUser = value;
+                    break;
+                case "ewm-password":
+                    options.ewmPassword = value;
+                    break;
+                case "stats-url":
+                    options.statsUrl = value;
+                    break;
+                case "stats-user":
+                    options.statsUser = value;
+                    break;
+                case "stats-password":
+                    options.statsPassword = value;
+                    break;
+                case "seed":
+                    options.seed = Long.parseLong(value);
+                    break;
+                case "base-time":
+                    options.baseTime = LocalDateTime.parse(value);
+                    break;
+                case "users":
+                    options.users = Integer.parseInt(value);
+                    break;
+                case "categories":
+                    options.categories = Integer.parseInt(value);
+                    break;
+                case "events":
+                    options.events = Integer.parseInt(value);
+                    break;
+                case "requests":
+                    options.requests = Integer.parseInt(value);
+                    break;
+                case "comments":
+                    options.comments = Integer.parseInt(value);
+                    break;
+                case "compilations":
+                    options.compilations = Integer.parseInt(value);
+                    break;
+                case "events-per-compilation":
+                    options.eventsPerCompilation = Integer.parseInt(value);
+                    break;
+                case "hits":
+                    options.hits = Long.parseLong(value);
+                    break;
+                case "hit-days":
+                    options.hitDays = Integer.parseInt(value);
+                    break;
+                case "event-skew":
+                    options.eventSkew = Double.parseDouble(value);
+                    break;
+                case "commenter-skew":
+                    options.commenterSkew = Double.parseDouble(value);
+                    break;
+                case "uri-skew":
+                    options.uriSkew = Double.parseDouble(value);
+                    break;
+                case "skip-ewm":
+                    options.skipEwm = Boolean.parseBoolean(value);
+                    break;
+                case "skip-stats":
+                    options.skipStats = Boolean.parseBoolean(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Неизвестный параметр " + key);
+            }
+        }
+        if (options.users < 2 || options.categories < 1 || options.events < 1) {
+            throw new IllegalArgumentException("Нужно минимум 2 пользователя, 1 категория и 1 событие");
+        }
+        return options;
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.generator;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+@Slf4j
+@RequiredArgsConstructor
+public class StatsGenerator {
+    private static final String APP = "ewm-service";
+    private static final String EVENTS_URI = "/events";
+    private static final int LIST_HITS_PERCENT = 15;
+    private static final long PROGRESS_ROWS = 1_000_000;
+
+    private final Connection connection;
+    private final GeneratorOptions options;
+
+    public void generate() throws SQLException, IOException {
+        connection.setAutoCommit(false);
+        int appId = app();
+        long[] uriIds = uris();
+        long listUriId = uriIds[0];
+        SplittableRandom random = new SplittableRandom(options.getSeed()).split();
+        ZipfSampler events = new ZipfSampler(options.getEvents(), options.getUriSkew());
+        ZipfSampler visitors = new ZipfSampler(options.getUsers(), 0.9);
+        long seconds = options.getHitDays() * 24L * 60 * 60;
+        LocalDateTime base = options.getBaseTime();
+        try (CopyWriter copy = new CopyWriter(connection, "hits", "app_id", "uri_id", "ip", "time")) {
+            for (long i = 1; i <= options.getHits(); i++) {
+                long uriId = random.nextInt(100) < LIST_HITS_PERCENT ? listUriId
+                        : uriIds[(int) publishedEvent(events, random)];
+                copy.row(appId, uriId, ip(visitors.sample(random)), base.minusSeconds(random.nextLong(seconds)));
+                if (i % PROGRESS_ROWS == 0) {
+                    log.info("Записано просмотров: {}", i);
+                }
+            }
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("analyze hits");
+        }
+        log.info("База stats заполнена: {} просмотров", options.getHits());
+    }
+
+    private int app() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("insert into apps (name) values (?) " +
+                "on conflict (name) do update set name = excluded.name returning id")) {
+            statement.setString(1, APP);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private long[] uris() throws SQLException {
+        long[] uriIds = new long[options.getEvents() + 1];
+        try (PreparedStatement insert = connection.prepareStatement("insert into uris (uri) " +
+                "select ? union all select ? || '/' || i from generate_series(1, ?) i on conflict (uri) do nothing")) {
+            insert.setString(1, EVENTS_URI);
+            insert.setString(2, EVENTS_URI);
+            insert.setInt(3, options.getEvents());
+            insert.executeUpdate();
+        }
+        try (PreparedStatement select = connection.prepareStatement("select id, uri from uris " +
+                "where uri = ? or uri ~ '^/events/[0-9]+$'")) {
+            select.setString(1, EVENTS_URI);
+            select.setFetchSize(10_000);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    String uri = rs.getString(2);
+                    long eventId = uri.length() == EVENTS_URI.length() ? 0
+                            : Long.parseLong(uri.substring(EVENTS_URI.length() + 1));
+                    if (eventId < uriIds.length) {
+                        uriIds[(int) eventId] = rs.getLong(1);
+                    }
+                }
+            }
+        }
+        connection.commit();
+        return uriIds;
+    }
+
+    private long publishedEvent(ZipfSampler events, SplittableRandom random) {
+        long eventId = events.sample(random);
+        for (int attempt = 0; attempt < 100 && !EventShape.isPublished(options.getSeed(), eventId); attempt++) {
+            eventId = events.sample(random);
+        }
+        return eventId;
+    }
+
+    private static String ip(long visitor) {
+        return "10." + (visitor >>> 16 & 0xFF) + "." + (visitor >>> 8 & 0xFF) + "." + (visitor & 0xFF);
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.generator;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Выбирает идентификаторы 1..n по закону Ципфа: ранг k выпадает с вероятностью, пропорциональной 1 / k^s.
+ * Популярные ранги разбрасываются по всему диапазону идентификаторов, чтобы «горячие» строки не были
+ * просто первыми по id.
+ */
+public class ZipfSampler {
+    private final double[] cdf;
+    private final long multiplier;
+
+    public ZipfSampler(int n, double exponent) {
+        cdf = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1 / Math.pow(i + 1, exponent);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+        multiplier = coprime(n);
+    }
+
+    public long sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        long rank = index >= 0 ? index : Math.min(-index - 1, cdf.length - 1);
+        return 1 + rank * multiplier % cdf.length;
+    }
+
+    private static long coprime(int n) {
+        long candidate = (long) (n * 0.6180339887) | 1;
+        while (gcd(candidate, n) != 1) {
+            candidate += 2;
+        }
+        return candidate;
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+}
@@ -3,9 +3,11 @@ package ru.practicum.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.dto.CompilationDto;
+import ru.practicum.dto.CompilationFeedDto;
 import ru.practicum.dto.NewCompilationDto;
 import ru.practicum.service.CompilationService;
 
@@ -28,11 +30,15 @@ public class CompilationController {
     }
 
     @GetMapping("/compilations")
-    public List<CompilationDto> getCompilations(@RequestParam(required = false) Boolean pinned,
-                                                @RequestParam(defaultValue = "0") Integer from,
-                                                @RequestParam(defaultValue = "10") Integer size) {
+    public ResponseEntity<List<CompilationDto>> getCompilations(@RequestParam(required = false) Boolean pinned,
+                                                                @RequestParam(defaultValue = "0") Integer from,
+                                                                @RequestParam(defaultValue = "10") Integer size) {
         log.debug("Контроллер - запрос на получение: pinned = {}, from = {}, size = {}", pinned, from, size);
-        return service.getAll(pinned, from, size);
+        if (Boolean.TRUE.equals(pinned)) {
+            CompilationFeedDto feed = service.getPinnedFeed(from, size);
+            return ResponseEntity.ok().eTag(feed.getEtag()).body(feed.getCompilations());
+        }
+        return ResponseEntity.ok(service.getAll(pinned, from, size));
     }
 
     @GetMapping("compilations/{compId}")
@@ -3,10 +3,12 @@ package ru.practicum.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.dto.CommentEventDto;
 import ru.practicum.dto.EventDto;
+import ru.practicum.dto.EventPageDto;
 import ru.practicum.dto.NewEventDto;
 import ru.practicum.dto.UpdateEventDto;
 import ru.practicum.service.EventService;
@@ -21,6 +23,8 @@ import java.util.List;
 @RequiredArgsConstructor
 @Validated
 public class EventController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final EventService service;
 
     @PostMapping("/users/{userId}/events")
@@ -31,16 +35,18 @@ public class EventController {
     }
 
     @GetMapping("/admin/events")
-    public List<EventDto> getEventsForAdmin(@RequestParam(name = "users", required = false) List<Long> usersId,
-                                            @RequestParam(required = false) List<String> states,
-                                            @RequestParam(name = "categories", required = false) List<Long> catsId,
-                                            @RequestParam(name = "rangeStart", required = false) String startStr,
-                                            @RequestParam(name = "rangeEnd", required = false) String endStr,
-                                            @RequestParam(defaultValue = "0") Integer from,
-                                            @RequestParam(defaultValue = "10") Integer size) {
+    public ResponseEntity<List<EventDto>> getEventsForAdmin(@RequestParam(name = "users", required = false) List<Long> usersId,
+                                                            @RequestParam(required = false) List<String> states,
+                                                            @RequestParam(name = "categories", required = false) List<Long> catsId,
+                                                            @RequestParam(name = "rangeStart", required = false) String startStr,
+                                                            @RequestParam(name = "rangeEnd", required = false) String endStr,
+                                                            @RequestParam(defaultValue = "0") Integer from,
+                                                            @RequestParam(defaultValue = "10") Integer size,
+                                                            @RequestParam(required = false) String cursor) {
         log.debug("Контроллер - запрос на получение администрации: users = {}, states = {}, categories = {}, " +
-                "rangeStart = {}, rangeEnd = {}, from = {}, size = {}", usersId, states, catsId, startStr, endStr, from, size);
-        return service.getAll(usersId, states, catsId, startStr, endStr, from, size);
+                "rangeStart = {}, rangeEnd = {}, from = {}, size = {}, cursor = {}", usersId, states, catsId, startStr,
+                endStr, from, size, cursor);
+        return toResponse(service.getAll(usersId, states, catsId, startStr, endStr, from, size, cursor));
     }
 
     @GetMapping("/users/{userId}/events")
@@ -52,22 +58,24 @@ public class EventController {
     }
 
     @GetMapping("/events")
-    public List<EventDto> getEvents(@RequestParam(required = false) String text,
-                                    @RequestParam(required = false) Boolean paid,
-                                    @RequestParam(name = "categories", required = false) List<Long> catsId,
-                                    @RequestParam(name = "rangeStart", required = false) String startStr,
-                                    @RequestParam(name = "rangeEnd", required = false) String endStr,
-                                    @RequestParam(defaultValue = "false") Boolean onlyAvailable,
-                                    @RequestParam(name = "sort", required = false) String sortStr,
-                                    @RequestParam(defaultValue = "0") Integer from,
-                                    @RequestParam(defaultValue = "10") Integer size,
-                                    HttpServletRequest request) {
+    public ResponseEntity<List<EventDto>> getEvents(@RequestParam(required = false) String text,
+                                                    @RequestParam(required = false) Boolean paid,
+                                                    @RequestParam(name = "categories", required = false) List<Long> catsId,
+                                                    @RequestParam(name = "rangeStart", required = false) String startStr,
+                                                    @RequestParam(name = "rangeEnd", required = false) String endStr,
+                                                    @RequestParam(defaultValue = "false") Boolean onlyAvailable,
+                                                    @RequestParam(name = "sort", required = false) String sortStr,
+                                                    @RequestParam(defaultValue = "0") Integer from,
+                                                    @RequestParam(defaultValue = "10") Integer size,
+                                                    @RequestParam(required = false) String cursor,
+                                                    HttpServletRequest request) {
         log.debug("Контроллер - запрос на публичное получение: text = {}, paid = {}, categories = {}, rangeStart = {}, " +
-                        "rangeEnd = {}, onlyAvailable = {}, sort = {}, from = {}, size = {}", text, paid, catsId, startStr,
-                endStr, onlyAvailable, sortStr, from, size);
+                        "rangeEnd = {}, onlyAvailable = {}, sort = {}, from = {}, size = {}, cursor = {}", text, paid,
+                catsId, startStr, endStr, onlyAvailable, sortStr, from, size, cursor);
         log.info("client ip: {}", request.getRemoteAddr());
         log.info("endpoint path: {}", request.getRequestURI());
-        return service.getAllPublic(text, paid, catsId, startStr, endStr, onlyAvailable, sortStr, from, size, request);
+        return toResponse(service.getAllPublic(text, paid, catsId, startStr, endStr, onlyAvailable, sortStr, from, size,
+                cursor, request));
     }
 
     @GetMapping("/events/{id}")
@@ -97,4 +105,12 @@ public class EventController {
                 userId, eventId, eventDto);
         return service.update(userId, eventId, eventDto);
     }
+
+    private ResponseEntity<List<EventDto>> toResponse(EventPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getEvents());
+    }
 }
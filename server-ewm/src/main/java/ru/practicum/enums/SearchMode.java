@@ -0,0 +1,5 @@
+package ru.practicum.enums;
+
+public enum SearchMode {
+    LIKE, FULL_TEXT
+}
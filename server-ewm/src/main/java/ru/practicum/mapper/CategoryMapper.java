@@ -12,6 +12,16 @@ public class CategoryMapper {
                 .build();
     }
 
+    /**
+     * Detached copy of a stored category, e.g. from a cached {@link CategoryDto}, to be used as an association.
+     */
+    public Category toStoredCategory(CategoryDto categoryDto) {
+        return Category.builder()
+                .id(categoryDto.getId())
+                .name(categoryDto.getName())
+                .build();
+    }
+
     public CategoryDto toCategoryDto(Category category) {
         return CategoryDto.builder()
                 .id(category.getId())
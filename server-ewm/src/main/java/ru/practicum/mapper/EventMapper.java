@@ -3,6 +3,7 @@ package ru.practicum.mapper;
 import org.springframework.stereotype.Component;
 import ru.practicum.dto.*;
 import ru.practicum.enums.State;
+import ru.practicum.model.CompilationEvent;
 import ru.practicum.model.Event;
 import ru.practicum.model.Location;
 
@@ -82,4 +83,18 @@ public class EventMapper {
                 .views(event.getViews())
                 .build();
     }
+
+    public EventShortDto toEventShortDto(CompilationEvent event) {
+        return EventShortDto.builder()
+                .annotation(event.getAnnotation())
+                .eventDate(event.getEventDate())
+                .paid(event.getPaid())
+                .title(event.getTitle())
+                .category(CategoryDto.builder().id(event.getCategoryId()).name(event.getCategoryName()).build())
+                .initiator(UserShortDto.builder().id(event.getInitiatorId()).name(event.getInitiatorName()).build())
+                .id(event.getId())
+                .views(event.getViews())
+                .confirmedRequests(event.getConfirmedRequests() != null ? event.getConfirmedRequests().longValue() : null)
+                .build();
+    }
 }
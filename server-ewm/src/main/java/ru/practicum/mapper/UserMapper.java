@@ -14,6 +14,17 @@ public class UserMapper {
                 .build();
     }
 
+    /**
+     * Detached copy of a stored user, e.g. from a cached {@link UserDto}, to be used as an association.
+     */
+    public User toStoredUser(UserDto userDto) {
+        return User.builder()
+                .id(userDto.getId())
+                .name(userDto.getName())
+                .email(userDto.getEmail())
+                .build();
+    }
+
     public UserDto toUserDto(User user) {
         return UserDto.builder()
                 .id(user.getId())
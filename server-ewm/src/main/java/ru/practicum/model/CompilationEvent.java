@@ -0,0 +1,25 @@
+package ru.practicum.model;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CompilationEvent {
+    Long compilationId;
+    Long id;
+    String title;
+    String annotation;
+    Boolean paid;
+    LocalDateTime eventDate;
+    Long views;
+    Integer confirmedRequests;
+    Long categoryId;
+    String categoryName;
+    Long initiatorId;
+    String initiatorName;
+}
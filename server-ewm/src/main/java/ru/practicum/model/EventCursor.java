@@ -0,0 +1,71 @@
+package ru.practicum.model;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.enums.SortEvent;
+import ru.practicum.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class EventCursor {
+    private static final String SEPARATOR = "|";
+
+    SortEvent sort;
+    LocalDateTime eventDate;
+    Long views;
+    Long id;
+
+    public static EventCursor first(SortEvent sort) {
+        return EventCursor.builder().sort(sort).build();
+    }
+
+    public static EventCursor after(SortEvent sort, Event event) {
+        return EventCursor.builder()
+                .sort(sort)
+                .eventDate(event.getEventDate())
+                .views(event.getViews())
+                .id(event.getId())
+                .build();
+    }
+
+    public static EventCursor decode(String token, SortEvent sort) {
+        if (token == null || token.isBlank()) {
+            return first(sort);
+        }
+        EventCursor cursor;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                    .split("\\" + SEPARATOR, 3);
+            cursor = EventCursor.builder().sort(SortEvent.fromString(parts[0])).id(Long.parseLong(parts[2])).build();
+            if (cursor.getSort() == SortEvent.VIEWS) {
+                cursor.setViews(Long.parseLong(parts[1]));
+            } else {
+                cursor.setEventDate(LocalDateTime.parse(parts[1]));
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidationException("Некорректный курсор: " + token);
+        }
+        if (cursor.getSort() != sort) {
+            throw new ValidationException("Курсор получен для другой сортировки.");
+        }
+        return cursor;
+    }
+
+    public boolean isFirst() {
+        return id == null;
+    }
+
+    public String encode() {
+        Object value = sort == SortEvent.VIEWS ? views : eventDate;
+        String raw = sort + SEPARATOR + value + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.model;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Поисковый документ события из генерируемой колонки events.search_vector. Отдельная сущность только для чтения,
+ * чтобы tsvector не загружался вместе с каждым событием.
+ */
+@Entity
+@Immutable
+@Table(name = "events")
+@Getter
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class EventDocument {
+    @Id
+    Long id;
+
+    @Column(name = "search_vector", insertable = false, updatable = false)
+    String searchVector;
+}
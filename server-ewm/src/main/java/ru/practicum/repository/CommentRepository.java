@@ -2,6 +2,7 @@ package ru.practicum.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.model.Comment;
 
@@ -9,13 +10,20 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @Override
+    @EntityGraph(attributePaths = "author")
+    Page<Comment> findAll(Pageable pageable);
+
     List<Comment> findByAuthorId(Long userId);
 
     void deleteByAuthorId(Long userId);
 
+    @EntityGraph(attributePaths = "author")
     List<Comment> findByEventId(Long eventId);
 
+    @EntityGraph(attributePaths = "author")
     Page<Comment> findByCreatedBeforeAndCreatedAfter(LocalDateTime start, LocalDateTime end, Pageable pageable);
 
+    @EntityGraph(attributePaths = "author")
     List<Comment> findByEventIdIn(List<Long> ids);
 }
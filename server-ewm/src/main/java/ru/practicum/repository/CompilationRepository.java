@@ -2,9 +2,23 @@ package ru.practicum.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.model.Compilation;
+import ru.practicum.model.CompilationEvent;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface CompilationRepository extends JpaRepository<Compilation, Long> {
     Page<Compilation> findByPinned(boolean pinned, Pageable pageable);
+
+    List<Compilation> findByPinned(boolean pinned, Sort sort);
+
+    @Query("select new ru.practicum.model.CompilationEvent(c.id, e.id, e.title, e.annotation, e.paid, e.eventDate, " +
+            "e.views, e.confirmedRequests, cat.id, cat.name, u.id, u.name) " +
+            "from Compilation c join c.events e left join e.category cat left join e.initiator u " +
+            "where c.id in ?1 order by c.id, e.id")
+    List<CompilationEvent> findEventsByCompilationIdIn(Collection<Long> ids);
 }
@@ -1,33 +1,51 @@
 package ru.practicum.repository;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
+import ru.practicum.enums.SearchMode;
 import ru.practicum.enums.SortEvent;
 import ru.practicum.enums.State;
 import ru.practicum.model.Category;
 import ru.practicum.model.Event;
+import ru.practicum.model.EventCursor;
+import ru.practicum.model.EventDocument;
 import ru.practicum.model.User;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Repository
 @RequiredArgsConstructor
 public class EventCustomRepositoryImpl implements EventCustomRepository {
     @PersistenceContext
     private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${ewm.events.search-mode:LIKE}")
+    private SearchMode searchMode;
 
     @Override
-    public List<Event> findAllEventsForAdminBy(List<User> users, List<State> states, List<Category> cats, LocalDateTime start, LocalDateTime end, Pageable pageable) {
+    public List<Event> findAllEventsForAdminBy(List<User> users, List<State> states, List<Category> cats, LocalDateTime start,
+                                               LocalDateTime end, EventCursor cursor, Pageable pageable) {
         var cb = entityManager.getCriteriaBuilder();
         var query = cb.createQuery(Event.class);
         Root<Event> eventRoot = query.from(Event.class);
+        eventRoot.fetch("initiator", JoinType.LEFT);
+        eventRoot.fetch("category", JoinType.LEFT);
         List<Predicate> predicates = new ArrayList<>();
 
         if (users != null) {
@@ -42,19 +60,33 @@ public class EventCustomRepositoryImpl implements EventCustomRepository {
         if (end != null && start != null) {
             predicates.add(cb.between(eventRoot.get("eventDate"), start, end));
         }
+        if (cursor != null) {
+            return seek(cb, query, eventRoot, predicates, cursor, pageable);
+        }
         query.where(predicates.toArray(new Predicate[0]));
         return entityManager.createQuery(query).setMaxResults(pageable.getPageSize())
-                .setFirstResult(pageable.getPageNumber()).getResultList();
+                .setFirstResult((int) pageable.getOffset()).getResultList();
     }
 
     @Override
     public List<Event> findAllEventsForUserBy(String text, Boolean paid, List<Category> cats, LocalDateTime start,
-                                              LocalDateTime end, boolean onlyAvailable, SortEvent sort, Pageable pageable) {
+                                              LocalDateTime end, boolean onlyAvailable, SortEvent sort, EventCursor cursor,
+                                              Pageable pageable) {
         var cb = entityManager.getCriteriaBuilder();
         var query = cb.createQuery(Event.class);
         Root<Event> eventRoot = query.from(Event.class);
+        eventRoot.fetch("initiator", JoinType.LEFT);
+        eventRoot.fetch("category", JoinType.LEFT);
         List<Predicate> predicates = new ArrayList<>();
-        if (text != null) {
+        boolean fullText = text != null && !text.isBlank() && searchMode == SearchMode.FULL_TEXT;
+        Root<EventDocument> document = null;
+        if (fullText) {
+            document = query.from(EventDocument.class);
+            query.select(eventRoot);
+            predicates.add(cb.equal(document.get("id"), eventRoot.get("id")));
+            predicates.add(cb.isTrue(cb.function(SearchFunctionsContributor.MATCH, Boolean.class,
+                    document.get("searchVector"), cb.literal(text))));
+        } else if (text != null) {
             predicates.add(cb.or((cb.like(cb.upper(eventRoot.get("annotation")), ("%" + text + "%").toUpperCase())),
                     (cb.like(cb.upper(eventRoot.get("description")), ("%" + text + "%").toUpperCase()))));
         }
@@ -70,18 +102,61 @@ public class EventCustomRepositoryImpl implements EventCustomRepository {
         if (onlyAvailable) {
             predicates.add(cb.lt(eventRoot.get("confirmedRequests"), eventRoot.get("participantLimit")));
         }
+        if (cursor != null) {
+            return seek(cb, query, eventRoot, predicates, cursor, pageable);
+        }
         query.where(predicates.toArray(new Predicate[0]));
         if (sort != null) {
             switch (sort) {
                 case EVENT_DATE:
                     return entityManager.createQuery(query.orderBy(cb.asc(eventRoot.get("eventDate")))).setMaxResults(pageable.getPageSize())
-                            .setFirstResult(pageable.getPageNumber()).getResultList();
+                            .setFirstResult((int) pageable.getOffset()).getResultList();
                 case VIEWS:
                     return entityManager.createQuery(query.orderBy(cb.asc(eventRoot.get("views")))).setMaxResults(pageable.getPageSize())
-                            .setFirstResult(pageable.getPageNumber()).getResultList();
+                            .setFirstResult((int) pageable.getOffset()).getResultList();
             }
         }
+        if (fullText) {
+            query.orderBy(cb.desc(cb.function(SearchFunctionsContributor.RANK, Double.class,
+                    document.get("searchVector"), cb.literal(text))), cb.asc(eventRoot.get("id")));
+        }
         return entityManager.createQuery(query).setMaxResults(pageable.getPageSize())
-                .setFirstResult(pageable.getPageNumber()).getResultList();
+                .setFirstResult((int) pageable.getOffset()).getResultList();
+    }
+
+    private List<Event> seek(CriteriaBuilder cb, CriteriaQuery<Event> query, Root<Event> eventRoot,
+                             List<Predicate> predicates, EventCursor cursor, Pageable pageable) {
+        Path<Long> id = eventRoot.get("id");
+        TypedQuery<Event> typedQuery;
+        if (cursor.getSort() == SortEvent.VIEWS) {
+            Path<Long> views = eventRoot.get("views");
+            if (!cursor.isFirst()) {
+                predicates.add(cb.or(cb.greaterThan(views, cursor.getViews()),
+                        cb.and(cb.equal(views, cursor.getViews()), cb.greaterThan(id, cursor.getId()))));
+            }
+            query.where(predicates.toArray(new Predicate[0]));
+            typedQuery = entityManager.createQuery(query.orderBy(cb.asc(views), cb.asc(id)));
+        } else {
+            Path<LocalDateTime> eventDate = eventRoot.get("eventDate");
+            if (!cursor.isFirst()) {
+                predicates.add(cb.or(cb.greaterThan(eventDate, cursor.getEventDate()),
+                        cb.and(cb.equal(eventDate, cursor.getEventDate()), cb.greaterThan(id, cursor.getId()))));
+            }
+            query.where(predicates.toArray(new Predicate[0]));
+            typedQuery = entityManager.createQuery(query.orderBy(cb.asc(eventDate), cb.asc(id)));
+        }
+        return typedQuery.setMaxResults(pageable.getPageSize()).getResultList();
+    }
+
+    @Override
+    public int updateViews(Map<Long, Long> views) {
+        List<Object[]> args = new ArrayList<>(views.size());
+        views.forEach((id, count) -> args.add(new Object[]{count, id, count}));
+        int updated = 0;
+        for (int rows : jdbcTemplate.batchUpdate(
+                "update events set views = ? where id = ? and views is distinct from ?", args)) {
+            updated += Math.max(rows, 0);
+        }
+        return updated;
     }
 }
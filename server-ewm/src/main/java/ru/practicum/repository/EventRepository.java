@@ -2,7 +2,10 @@ package ru.practicum.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.enums.State;
 import ru.practicum.model.Event;
 
@@ -10,9 +13,36 @@ import java.util.List;
 import java.util.Optional;
 
 public interface EventRepository extends EventCustomRepository, JpaRepository<Event, Long> {
+    @Override
+    @EntityGraph(attributePaths = {"initiator", "category"})
+    Page<Event> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"initiator", "category"})
+    Optional<Event> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = {"initiator", "category"})
+    List<Event> findAllById(Iterable<Long> ids);
+
+    @EntityGraph(attributePaths = {"initiator", "category"})
     Page<Event> findByInitiatorId(Long userId, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"initiator", "category"})
     Optional<Event> findByIdAndStateIn(Long id, List<State> state);
 
+    @EntityGraph(attributePaths = {"initiator", "category"})
     Page<Event> findByIdIn(List<Long> ids, Pageable pageable);
+
+    @Query("select e.id from Event e where e.state = ?1 and e.id > ?2 order by e.id")
+    List<Long> findIdsByState(State state, Long afterId, Pageable pageable);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Event e set e.confirmedRequests = e.confirmedRequests + ?2 " +
+            "where e.id = ?1 and (e.participantLimit = 0 or e.confirmedRequests + ?2 <= e.participantLimit)")
+    int incrementConfirmedRequests(Long eventId, int count);
+
+    @Query(value = "select participant_limit - confirmed_requests from events where id = ?1 for update",
+            nativeQuery = true)
+    Optional<Integer> findFreeSeatsForUpdate(Long eventId);
 }
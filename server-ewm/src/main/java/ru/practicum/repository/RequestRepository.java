@@ -1,8 +1,11 @@
 package ru.practicum.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.enums.Status;
 import ru.practicum.model.Request;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +15,23 @@ public interface RequestRepository extends JpaRepository<Request, Long> {
     List<Request> findByEventId(Long id);
 
     Optional<Request> findByRequesterIdAndEventId(Long requestId, Long eventId);
+
+    List<Request> findByIdIn(Collection<Long> ids);
+
+    boolean existsByIdInAndStatus(Collection<Long> ids, Status status);
+
+    /**
+     * Confirms up to {@code limit} pending requests of the event and returns the ids of the rows it changed.
+     */
+    @Query(value = "update requests set status = 'CONFIRMED' where id in (" +
+            "select id from requests where id in (?1) and event_id = ?2 and status = 'PENDING' order by id limit ?3) " +
+            "returning id", nativeQuery = true)
+    List<Long> confirmPending(Collection<Long> ids, Long eventId, int limit);
+
+    /**
+     * Rejects the pending requests of the event and returns the ids of the rows it changed.
+     */
+    @Query(value = "update requests set status = 'REJECTED' where id in (?1) and event_id = ?2 and status = 'PENDING' " +
+            "returning id", nativeQuery = true)
+    List<Long> rejectPending(Collection<Long> ids, Long eventId);
 }
@@ -0,0 +1,21 @@
+package ru.practicum.repository;
+
+import org.hibernate.boot.MetadataBuilder;
+import org.hibernate.boot.spi.MetadataBuilderContributor;
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.type.StandardBasicTypes;
+
+public class SearchFunctionsContributor implements MetadataBuilderContributor {
+    public static final String MATCH = "event_text_match";
+    public static final String RANK = "event_text_rank";
+
+    private static final String QUERY = "plainto_tsquery('simple', ?2)";
+
+    @Override
+    public void contribute(MetadataBuilder metadataBuilder) {
+        metadataBuilder.applySqlFunction(MATCH,
+                new SQLFunctionTemplate(StandardBasicTypes.BOOLEAN, "(?1 @@ " + QUERY + ")"));
+        metadataBuilder.applySqlFunction(RANK,
+                new SQLFunctionTemplate(StandardBasicTypes.DOUBLE, "ts_rank(?1, " + QUERY + ")"));
+    }
+}
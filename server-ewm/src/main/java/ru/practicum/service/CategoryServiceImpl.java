@@ -1,6 +1,11 @@
 package ru.practicum.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
@@ -11,14 +16,20 @@ import ru.practicum.mapper.CategoryMapper;
 import ru.practicum.model.Category;
 import ru.practicum.repository.CategoryRepository;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "ewm.service", histogram = true)
 public class CategoryServiceImpl implements CategoryService {
+    public static final String CATEGORY_DTOS = "categoryDtos";
+
     private final CategoryRepository repository;
     private final CategoryMapper mapper;
+    private final CacheManager cacheManager;
+    private final CompilationFeed compilationFeed;
 
     @Override
     @Transactional
@@ -37,34 +48,82 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @Cacheable(cacheNames = CATEGORY_DTOS, key = "#id")
     public CategoryDto getById(Long id) {
-        return mapper.toCategoryDto(getCategory(id));
+        return mapper.toCategoryDto(findCategory(id));
     }
 
     @Override
     @Transactional
     public void delete(Long id) {
         repository.deleteById(id);
+        evictAfterCommit(id);
+        compilationFeed.invalidate();
     }
 
     @Override
     @Transactional
     public CategoryDto update(Long id, CategoryDto categoryDto) {
-        Category category = getCategory(id);
+        Category category = findCategory(id);
         category.setName(categoryDto.getName());
+        evictAfterCommit(id);
+        compilationFeed.invalidate();
         return mapper.toCategoryDto(repository.save(category));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Category getCategory(Long id) {
-        return repository.findById(id)
-                .orElseThrow(() -> new NotFoundException(String.format("Категории с id %d не найдено", id)));
+        Cache cache = cacheManager.getCache(CATEGORY_DTOS);
+        CategoryDto cached = cache != null ? cache.get(id, CategoryDto.class) : null;
+        if (cached != null) {
+            return mapper.toStoredCategory(cached);
+        }
+        Category category = findCategory(id);
+        if (cache != null) {
+            cache.put(id, mapper.toCategoryDto(category));
+        }
+        return category;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Category> getAllById(List<Long> ids) {
-        return repository.findAllById(ids);
+        Cache cache = cacheManager.getCache(CATEGORY_DTOS);
+        if (cache == null) {
+            return repository.findAllById(ids);
+        }
+        List<Category> categories = new ArrayList<>();
+        List<Long> missed = new ArrayList<>();
+        for (Long id : ids) {
+            CategoryDto category = cache.get(id, CategoryDto.class);
+            if (category != null) {
+                categories.add(mapper.toStoredCategory(category));
+            } else {
+                missed.add(id);
+            }
+        }
+        if (!missed.isEmpty()) {
+            for (Category category : repository.findAllById(missed)) {
+                cache.put(category.getId(), mapper.toCategoryDto(category));
+                categories.add(category);
+            }
+        }
+        return categories;
+    }
+
+    private Category findCategory(Long id) {
+        return repository.findById(id)
+                .orElseThrow(() -> new NotFoundException(String.format("Категории с id %d не найдено", id)));
+    }
+
+    /**
+     * Evicts once the transaction commits, so a concurrent read cannot put the old value back in between.
+     */
+    private void evictAfterCommit(Long id) {
+        Cache cache = cacheManager.getCache(CATEGORY_DTOS);
+        if (cache != null) {
+            new TransactionAwareCacheDecorator(cache).evict(id);
+        }
     }
 }
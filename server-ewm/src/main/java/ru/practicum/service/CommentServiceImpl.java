@@ -1,5 +1,6 @@
 package ru.practicum.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.PageRequest;
@@ -26,6 +27,7 @@ import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "ewm.service", histogram = true)
 public class CommentServiceImpl implements CommentService {
     private final CommentRepository repository;
     private final UserService userService;
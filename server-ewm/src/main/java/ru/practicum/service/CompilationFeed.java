@@ -0,0 +1,100 @@
+package ru.practicum.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+import ru.practicum.dto.CompilationDto;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class CompilationFeed {
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    public CompilationFeed(ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Returns the current snapshot without touching the database. Only a rebuild after invalidation runs the
+     * builder, inside its own read-only transaction.
+     */
+    public Snapshot get(Supplier<List<CompilationDto>> builder) {
+        Snapshot current = snapshot.get();
+        if (current != null && current.version == version.get()) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot.get();
+            long buildVersion = version.get();
+            if (current != null && current.version == buildVersion) {
+                return current;
+            }
+            List<CompilationDto> compilations = List.copyOf(readOnlyTransaction.execute(status -> builder.get()));
+            Snapshot built = new Snapshot(buildVersion, compilations, hash(compilations));
+            if (version.get() == buildVersion) {
+                snapshot.set(built);
+            }
+            log.debug("Лента подборок перестроена: {} подборок", compilations.size());
+            return built;
+        }
+    }
+
+    public void invalidate() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            version.incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                version.incrementAndGet();
+            }
+        });
+    }
+
+    private String hash(List<CompilationDto> compilations) {
+        try {
+            return DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(compilations));
+        } catch (JsonProcessingException e) {
+            return Long.toHexString(System.nanoTime());
+        }
+    }
+
+    public static final class Snapshot {
+        private final long version;
+        private final List<CompilationDto> compilations;
+        private final String hash;
+
+        private Snapshot(long version, List<CompilationDto> compilations, String hash) {
+            this.version = version;
+            this.compilations = compilations;
+            this.hash = hash;
+        }
+
+        public List<CompilationDto> page(int from, int size) {
+            int start = Math.min(from, compilations.size());
+            return compilations.subList(start, Math.min(start + size, compilations.size()));
+        }
+
+        public String etag(int from, int size) {
+            return "\"" + hash + "-" + from + "-" + size + "\"";
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.service;
 
 import ru.practicum.dto.CompilationDto;
+import ru.practicum.dto.CompilationFeedDto;
 import ru.practicum.dto.NewCompilationDto;
 
 import java.util.List;
@@ -10,6 +11,8 @@ public interface CompilationService {
 
     List<CompilationDto> getAll(Boolean pinned, int from, int size);
 
+    CompilationFeedDto getPinnedFeed(int from, int size);
+
     CompilationDto getById(Long id);
 
     void delete(Long id);
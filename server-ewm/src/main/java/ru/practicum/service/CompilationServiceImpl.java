@@ -1,26 +1,38 @@
 package ru.practicum.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.dto.CompilationDto;
+import ru.practicum.dto.CompilationFeedDto;
+import ru.practicum.dto.EventShortDto;
 import ru.practicum.dto.NewCompilationDto;
 import ru.practicum.exception.NotFoundException;
 import ru.practicum.exception.ValidationException;
 import ru.practicum.mapper.CompilationMapper;
+import ru.practicum.mapper.EventMapper;
 import ru.practicum.model.Compilation;
+import ru.practicum.model.CompilationEvent;
 import ru.practicum.repository.CompilationRepository;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import static java.util.stream.Collectors.groupingBy;
+
 @Service
 @RequiredArgsConstructor
+@Timed(value = "ewm.service", histogram = true)
 public class CompilationServiceImpl implements CompilationService {
     private final CompilationRepository repository;
     private final CompilationMapper mapper;
+    private final EventMapper eventMapper;
     private final EventService eventService;
+    private final CompilationFeed feed;
 
     @Override
     @Transactional
@@ -30,26 +42,33 @@ public class CompilationServiceImpl implements CompilationService {
             compilation.setPinned(false);
         }
         compilation.setEvents(eventService.getAllEvents(newCompilationDto.getEvents()));
-        compilation = repository.save(compilation);
-        return mapper.toCompilationDto(compilation,
-                eventService.getShortEvent(compilation.getEvents()));
+        compilation = repository.saveAndFlush(compilation);
+        feed.invalidate();
+        return toCompilationDtoList(List.of(compilation)).get(0);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<CompilationDto> getAll(Boolean pinned, int from, int size) {
         int pageNumber = (int) Math.ceil((double) from / size);
+        List<Compilation> compilations;
         if (pinned == null) {
-            return repository.findAll(PageRequest.of(pageNumber, size)).stream()
-                    .map(compilation -> mapper.toCompilationDto(compilation,
-                            eventService.getShortEvent(compilation.getEvents())))
-                    .collect(Collectors.toList());
+            compilations = repository.findAll(PageRequest.of(pageNumber, size)).toList();
         } else {
-            return repository.findByPinned(pinned, PageRequest.of(pageNumber, size)).stream()
-                    .map(compilation -> mapper.toCompilationDto(compilation,
-                            eventService.getShortEvent(compilation.getEvents())))
-                    .collect(Collectors.toList());
+            compilations = repository.findByPinned(pinned, PageRequest.of(pageNumber, size)).toList();
         }
+        return toCompilationDtoList(compilations);
+    }
+
+    @Override
+    public CompilationFeedDto getPinnedFeed(int from, int size) {
+        int offset = (int) Math.ceil((double) from / size) * size;
+        CompilationFeed.Snapshot snapshot = feed.get(() ->
+                toCompilationDtoList(repository.findByPinned(true, Sort.by("id").ascending())));
+        return CompilationFeedDto.builder()
+                .compilations(snapshot.page(offset, size))
+                .etag(snapshot.etag(offset, size))
+                .build();
     }
 
     @Override
@@ -57,13 +76,14 @@ public class CompilationServiceImpl implements CompilationService {
     public CompilationDto getById(Long id) {
         Compilation compilation = repository.findById(id).orElseThrow(() ->
                 new NotFoundException("Данной подборки не существует"));
-        return mapper.toCompilationDto(compilation, eventService.getShortEvent(compilation.getEvents()));
+        return toCompilationDtoList(List.of(compilation)).get(0);
     }
 
     @Override
     @Transactional
     public void delete(Long id) {
         repository.deleteById(id);
+        feed.invalidate();
     }
 
     @Override
@@ -84,7 +104,24 @@ public class CompilationServiceImpl implements CompilationService {
         if (compilationDto.getEvents() != null) {
             compilation.setEvents(eventService.getAllEvents(compilationDto.getEvents()));
         }
-        compilation = repository.save(compilation);
-        return mapper.toCompilationDto(compilation, eventService.getShortEvent(compilation.getEvents()));
+        compilation = repository.saveAndFlush(compilation);
+        feed.invalidate();
+        return toCompilationDtoList(List.of(compilation)).get(0);
+    }
+
+    private List<CompilationDto> toCompilationDtoList(List<Compilation> compilations) {
+        if (compilations.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<EventShortDto>> events = repository.findEventsByCompilationIdIn(compilations.stream()
+                        .map(Compilation::getId)
+                        .collect(Collectors.toList()))
+                .stream()
+                .collect(groupingBy(CompilationEvent::getCompilationId,
+                        Collectors.mapping(eventMapper::toEventShortDto, Collectors.toList())));
+        return compilations.stream()
+                .map(compilation -> mapper.toCompilationDto(compilation,
+                        events.getOrDefault(compilation.getId(), List.of())))
+                .collect(Collectors.toList());
     }
 }
@@ -9,14 +9,16 @@ import java.util.List;
 public interface EventService {
     EventDto create(NewEventDto newEventDto, Long userId);
 
-    List<EventDto> getAll(List<Long> users, List<String> states, List<Long> catsId, String startStr, String endStr, int from, int size);
+    EventPageDto getAll(List<Long> users, List<String> states, List<Long> catsId, String startStr, String endStr,
+                        int from, int size, String cursor);
 
     EventDto published(Long id, UpdateEventDto eventDto);
 
     List<EventDto> getAllByUser(Long userId, int from, int size);
 
-    List<EventDto> getAllPublic(String text, Boolean paid, List<Long> catsId, String startStr, String endStr,
-                                boolean onlyAvailable, String sortStr, int from, int size, HttpServletRequest request);
+    EventPageDto getAllPublic(String text, Boolean paid, List<Long> catsId, String startStr, String endStr,
+                              boolean onlyAvailable, String sortStr, int from, int size, String cursor,
+                              HttpServletRequest request);
 
     CommentEventDto getPublicById(Long id, HttpServletRequest request);
 
@@ -28,6 +30,10 @@ public interface EventService {
 
     Event saveEvent(Event event);
 
+    boolean addConfirmedRequests(Long eventId, int count);
+
+    int lockFreeSeats(Event event);
+
     List<Event> getAllEvents(List<Long> ids);
 
     List<EventShortDto> getShortEvent(List<Event> events);
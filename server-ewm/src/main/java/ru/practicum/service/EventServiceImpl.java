@@ -1,11 +1,15 @@
 package ru.practicum.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.ResourceAccessException;
 import ru.practicum.StatsClient;
+import ru.practicum.StatsUnavailableException;
 import ru.practicum.dto.*;
 import ru.practicum.enums.SortEvent;
 import ru.practicum.enums.State;
@@ -19,6 +23,7 @@ import ru.practicum.mapper.EventMapper;
 import ru.practicum.mapper.UserMapper;
 import ru.practicum.model.Category;
 import ru.practicum.model.Event;
+import ru.practicum.model.EventCursor;
 import ru.practicum.model.User;
 import ru.practicum.repository.CommentRepository;
 import ru.practicum.repository.EventRepository;
@@ -33,9 +38,13 @@ import java.util.stream.Collectors;
 
 import static java.util.stream.Collectors.groupingBy;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed(value = "ewm.service", histogram = true)
 public class EventServiceImpl implements EventService {
+    private static final String EVENT_URI = "/events/";
+
     private final EventRepository repository;
     private final CommentRepository commentRepository;
     private final UserService userService;
@@ -45,6 +54,7 @@ public class EventServiceImpl implements EventService {
     private final UserMapper userMapper;
     private final CommentMapper commentMapper;
     private final StatsClient client;
+    private final CompilationFeed compilationFeed;
 
     @Override
     @Transactional
@@ -60,18 +70,22 @@ public class EventServiceImpl implements EventService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<EventDto> getAll(List<Long> usersId, List<String> statesStr, List<Long> catsId, String startStr, String endStr, int from, int size) {
+    public EventPageDto getAll(List<Long> usersId, List<String> statesStr, List<Long> catsId, String startStr,
+                               String endStr, int from, int size, String cursor) {
         int pageNumber = (int) Math.ceil((double) from / size);
+        EventCursor eventCursor = cursor != null ? EventCursor.decode(cursor, SortEvent.EVENT_DATE) : null;
         List<Event> events;
         List<User> users = null;
         List<Category> categories = null;
         LocalDateTime start = null;
         LocalDateTime end = null;
-        List<State> states = new ArrayList<>();
-        if (usersId == null && statesStr == null && catsId == null && startStr == null && endStr == null) {
+        List<State> states = null;
+        if (eventCursor == null && usersId == null && statesStr == null && catsId == null && startStr == null
+                && endStr == null) {
             events = repository.findAll(PageRequest.of(pageNumber, size)).toList();
         } else {
             if (statesStr != null) {
+                states = new ArrayList<>();
                 for (String state : statesStr) {
                     states.add(State.fromString(state));
                 }
@@ -89,9 +103,9 @@ public class EventServiceImpl implements EventService {
                 end = fromString(endStr);
             }
             events = repository.findAllEventsForAdminBy(users, states, categories,
-                    start, end, PageRequest.of(pageNumber, size));
+                    start, end, eventCursor, PageRequest.of(pageNumber, size));
         }
-        return toEventDtoList(events);
+        return toEventPage(toEventDtoList(events), events, eventCursor, size);
     }
 
     @Override
@@ -114,11 +128,16 @@ public class EventServiceImpl implements EventService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<EventDto> getAllPublic(String text, Boolean paid, List<Long> catsId, String startStr, String endStr,
-                                       boolean onlyAvailable, String sortStr, int from, int size, HttpServletRequest request) {
+    public EventPageDto getAllPublic(String text, Boolean paid, List<Long> catsId, String startStr, String endStr,
+                                     boolean onlyAvailable, String sortStr, int from, int size, String cursor,
+                                     HttpServletRequest request) {
         List<Event> events = List.of();
         int pageNumber = (int) Math.ceil((double) from / size);
-        if (text == null || text.isBlank() && catsId == null && paid != null && startStr != null && endStr != null) {
+        EventCursor eventCursor = null;
+        if (cursor != null) {
+            eventCursor = EventCursor.decode(cursor, sortStr != null ? SortEvent.fromString(sortStr) : SortEvent.EVENT_DATE);
+        }
+        if (eventCursor == null && (text == null || text.isBlank() && catsId == null && paid != null && startStr != null && endStr != null)) {
             if (sortStr == null) {
                 events = repository.findAll(PageRequest.of(pageNumber, size)).toList();
             } else {
@@ -152,14 +171,10 @@ public class EventServiceImpl implements EventService {
                 sort = SortEvent.fromString(sortStr);
             }
             events = repository.findAllEventsForUserBy(text, paid, categories, start, end, onlyAvailable,
-                    sort, PageRequest.of(pageNumber, size));
+                    sort, eventCursor, PageRequest.of(pageNumber, size));
         }
-        client.createHit(request);
-        events = events.stream()
-                .peek(event -> event.setViews(client.getStatsUnique(request.getRequestURI()).getBody()))
-                .collect(Collectors.toList());
-        repository.saveAll(events);
-        return toEventDtoList(events);
+        sendHit(request);
+        return toEventPage(setViews(toEventDtoList(events)), events, eventCursor, size);
     }
 
     @Override
@@ -167,12 +182,16 @@ public class EventServiceImpl implements EventService {
     public CommentEventDto getPublicById(Long id, HttpServletRequest request) {
         Event event = repository.findByIdAndStateIn(id, List.of(State.PUBLISHED))
                 .orElseThrow(() -> new NotFoundException(String.format("Категории с id %d не найдено", id)));
-        client.createHit(request);
-        event.setViews(client.getStatsUnique(request.getRequestURI()).getBody());
-        saveEvent(event);
+        sendHit(request);
         CommentEventDto eventDto = mapper.toCommentEventDto(event,
                 userMapper.toUserShortDto(event.getInitiator()),
                 categoryMapper.toCategoryDto(event.getCategory()));
+        try {
+            eventDto.setViews(client.getStatsUnique(request.getRequestURI()).getBody());
+        } catch (StatsUnavailableException e) {
+            log.warn("Просмотры события {} взяты из последнего обновления: {}", id, e.getMessage());
+            eventDto.setViews(event.getViews() != null ? event.getViews() : 0L);
+        }
         eventDto.setCommentDtos(commentRepository.findByEventId(eventDto.getId())
                 .stream()
                 .map(commentMapper::toCommentDto)
@@ -221,7 +240,27 @@ public class EventServiceImpl implements EventService {
     @Override
     @Transactional
     public Event saveEvent(Event event) {
-        return repository.save(event);
+        Event saved = repository.save(event);
+        compilationFeed.invalidate();
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public boolean addConfirmedRequests(Long eventId, int count) {
+        if (repository.incrementConfirmedRequests(eventId, count) == 0) {
+            return false;
+        }
+        compilationFeed.invalidate();
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public int lockFreeSeats(Event event) {
+        int freeSeats = repository.findFreeSeatsForUpdate(event.getId())
+                .orElseThrow(() -> new NotFoundException(String.format("События с id %d не найдено", event.getId())));
+        return event.getParticipantLimit() == 0 ? Integer.MAX_VALUE : Math.max(freeSeats, 0);
     }
 
     @Override
@@ -267,6 +306,43 @@ public class EventServiceImpl implements EventService {
         return LocalDateTime.parse(dateStr, formatter);
     }
 
+    private void sendHit(HttpServletRequest request) {
+        try {
+            client.createHit(request);
+        } catch (StatsUnavailableException | ResourceAccessException e) {
+            log.warn("Просмотр {} не отправлен в сервис статистики: {}", request.getRequestURI(), e.getMessage());
+        }
+    }
+
+    private List<EventDto> setViews(List<EventDto> events) {
+        if (events.isEmpty()) {
+            return events;
+        }
+        Map<String, Long> views;
+        try {
+            views = client.getViews(events.stream()
+                    .map(event -> EVENT_URI + event.getId())
+                    .collect(Collectors.toList()));
+        } catch (StatsUnavailableException e) {
+            log.warn("Просмотры событий взяты из последнего обновления: {}", e.getMessage());
+            events.forEach(event -> event.setViews(event.getViews() != null ? event.getViews() : 0L));
+            return events;
+        }
+        events.forEach(event -> event.setViews(views.getOrDefault(EVENT_URI + event.getId(), 0L)));
+        return events;
+    }
+
+    private EventPageDto toEventPage(List<EventDto> eventDtos, List<Event> events, EventCursor cursor, int size) {
+        String nextCursor = null;
+        if (cursor != null && events.size() == size) {
+            nextCursor = EventCursor.after(cursor.getSort(), events.get(events.size() - 1)).encode();
+        }
+        return EventPageDto.builder()
+                .events(eventDtos)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
     private List<EventDto> toEventDtoList(List<Event> events) {
         if (events.isEmpty()) {
             return List.of();
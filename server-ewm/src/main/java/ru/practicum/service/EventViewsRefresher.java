@@ -0,0 +1,68 @@
+package ru.practicum.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.StatsClient;
+import ru.practicum.enums.State;
+import ru.practicum.repository.EventRepository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventViewsRefresher {
+    private static final String EVENT_URI = "/events/";
+
+    private final EventRepository repository;
+    private final StatsClient client;
+    private final TransactionTemplate transactionTemplate;
+    private final CompilationFeed compilationFeed;
+
+    @Value("${ewm.views.refresh-enabled:true}")
+    private boolean enabled;
+
+    @Value("${ewm.views.batch-size:200}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${ewm.views.refresh-interval-ms:60000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        long afterId = 0;
+        int updated = 0;
+        List<Long> ids;
+        do {
+            ids = repository.findIdsByState(State.PUBLISHED, afterId, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            try {
+                Map<String, Long> views = client.getViews(ids.stream()
+                        .map(id -> EVENT_URI + id)
+                        .collect(Collectors.toList()));
+                Map<Long, Long> eventViews = new HashMap<>();
+                ids.forEach(id -> eventViews.put(id, views.getOrDefault(EVENT_URI + id, 0L)));
+                Integer rows = transactionTemplate.execute(status -> repository.updateViews(eventViews));
+                updated += rows != null ? rows : 0;
+            } catch (RuntimeException e) {
+                log.warn("Не удалось обновить просмотры событий: {}", e.getMessage());
+                return;
+            }
+            afterId = ids.get(ids.size() - 1);
+        } while (ids.size() == batchSize);
+        if (updated > 0) {
+            compilationFeed.invalidate();
+        }
+        log.debug("Обновлены просмотры {} событий", updated);
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,11 +19,14 @@ import ru.practicum.model.User;
 import ru.practicum.repository.RequestRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "ewm.service", histogram = true)
 public class RequestServiceImpl implements RequestService {
     private final RequestRepository repository;
     private final UserService userService;
@@ -53,9 +57,10 @@ public class RequestServiceImpl implements RequestService {
                     .status(Status.PENDING)
                     .build();
             if (event.getParticipantLimit() == 0 || !event.getRequestModeration()) {
+                if (!eventService.addConfirmedRequests(eventId, 1)) {
+                    throw new ConflictException("Запросы на данное событие уже превышают лимит.");
+                }
                 request.setStatus(Status.CONFIRMED);
-                event.setConfirmedRequests(event.getConfirmedRequests() + 1);
-                eventService.saveEvent(event);
             }
             return mapper.toRequestDto(repository.save(request));
         }
@@ -82,30 +87,34 @@ public class RequestServiceImpl implements RequestService {
         if (!event.getInitiator().getId().equals(user.getId())) {
             throw new ConflictException("Вы не являетесь инициатором события, не возможно изменить статус заявок.");
         }
-        List<Request> requests = repository.findAllById(requestDto.getRequestIds());
-        List<Request> filterRequest = requests.stream().filter(request -> request.getStatus() == Status.CONFIRMED)
-                .collect(Collectors.toList());
-        if (filterRequest.size() == 0) {
-            requests = requests.stream().peek(request -> request.setStatus(requestDto.getStatus()))
-                    .collect(Collectors.toList());
-        } else {
+        List<Long> ids = requestDto.getRequestIds();
+        if (requestDto.getStatus() != Status.CONFIRMED && requestDto.getStatus() != Status.REJECTED) {
+            throw new ValidationException("Вы можете только подтвердить или отказать заявкам на участие.");
+        }
+        if (repository.existsByIdInAndStatus(ids, Status.CONFIRMED)) {
             throw new ConflictException("Невозможно изменить так как уже принято или отклонённая заявка.");
         }
-        List<RequestDto> requestDtos = repository.saveAll(requests).stream()
-                .map(mapper::toRequestDto).collect(Collectors.toList());
-        switch (requestDto.getStatus()) {
-            case REJECTED:
-                return UpdateRequestDtoResult.builder().rejectedRequests(requestDtos).build();
-            case CONFIRMED:
-                if (event.getParticipantLimit().equals(event.getConfirmedRequests())) {
-                    throw new ConflictException("Вы не можете принять данную заявку, так как лимит будет превышен");
-                }
-                event.setConfirmedRequests(event.getConfirmedRequests() + requestDtos.size());
-                eventService.saveEvent(event);
-                return UpdateRequestDtoResult.builder().confirmedRequests(requestDtos).build();
-            default:
-                throw new ValidationException("Вы можете только подтвердить или отказать заявкам на участие.");
+        List<Long> changed = new ArrayList<>();
+        if (requestDto.getStatus() == Status.CONFIRMED) {
+            int freeSeats = eventService.lockFreeSeats(event);
+            if (freeSeats == 0) {
+                throw new ConflictException("Вы не можете принять данную заявку, так как лимит будет превышен");
+            }
+            List<Long> confirmed = repository.confirmPending(ids, eventId, freeSeats);
+            if (!confirmed.isEmpty()) {
+                eventService.addConfirmedRequests(eventId, confirmed.size());
+            }
+            changed.addAll(confirmed);
         }
+        changed.addAll(repository.rejectPending(ids, eventId));
+        // в ответ попадают только заявки, статус которых изменил этот вызов
+        Map<Status, List<RequestDto>> requests = changed.isEmpty() ? Map.of() : repository.findByIdIn(changed).stream()
+                .map(mapper::toRequestDto)
+                .collect(Collectors.groupingBy(RequestDto::getStatus));
+        return UpdateRequestDtoResult.builder()
+                .confirmedRequests(requests.getOrDefault(Status.CONFIRMED, List.of()))
+                .rejectedRequests(requests.getOrDefault(Status.REJECTED, List.of()))
+                .build();
     }
 
     @Override
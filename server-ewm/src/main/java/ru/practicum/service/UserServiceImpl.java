@@ -1,6 +1,10 @@
 package ru.practicum.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
@@ -16,9 +20,14 @@ import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "ewm.service", histogram = true)
 public class UserServiceImpl implements UserService {
+    public static final String USERS = "users";
+
     private final UserRepository repository;
     private final UserMapper mapper;
+    private final CacheManager cacheManager;
+    private final CompilationFeed compilationFeed;
 
     @Override
     @Transactional
@@ -47,13 +56,28 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void delete(Long id) {
         repository.deleteById(id);
+        Cache cache = cacheManager.getCache(USERS);
+        if (cache != null) {
+            // evicted after commit, so a concurrent read cannot put the deleted user back
+            new TransactionAwareCacheDecorator(cache).evict(id);
+        }
+        compilationFeed.invalidate();
     }
 
     @Override
     @Transactional(readOnly = true)
     public User getUser(Long id) {
-        return repository.findById(id)
+        Cache cache = cacheManager.getCache(USERS);
+        UserDto cached = cache != null ? cache.get(id, UserDto.class) : null;
+        if (cached != null) {
+            return mapper.toStoredUser(cached);
+        }
+        User user = repository.findById(id)
                 .orElseThrow(() -> new NotFoundException(String.format("Категории с id %d не найдено", id)));
+        if (cache != null) {
+            cache.put(id, mapper.toUserDto(user));
+        }
+        return user;
     }
 
     @Override
@@ -0,0 +1,21 @@
+CREATE INDEX IF NOT EXISTS events_event_date_id_idx ON events (event_date, id);
+CREATE INDEX IF NOT EXISTS events_views_id_idx ON events (views, id);
+CREATE INDEX IF NOT EXISTS events_state_event_date_idx ON events (state, event_date);
+CREATE INDEX IF NOT EXISTS events_state_id_idx ON events (state, id);
+CREATE INDEX IF NOT EXISTS events_user_id_idx ON events (user_id, id);
+CREATE INDEX IF NOT EXISTS events_category_id_idx ON events (category_id);
+CREATE INDEX IF NOT EXISTS events_text_search_idx ON events
+  USING gin (to_tsvector('simple', coalesce(title, '') || ' ' || coalesce(annotation, '') || ' ' || coalesce(description, '')));
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS events_annotation_trgm_idx ON events USING gin (upper(annotation) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS events_description_trgm_idx ON events USING gin (upper(description) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS requests_event_id_status_idx ON requests (event_id, status);
+CREATE INDEX IF NOT EXISTS requests_user_id_event_id_idx ON requests (user_id, event_id);
+
+CREATE INDEX IF NOT EXISTS compilations_pinned_idx ON compilations (pinned, id);
+CREATE INDEX IF NOT EXISTS compilations_events_events_id_idx ON compilations_events (events_id);
+
+CREATE INDEX IF NOT EXISTS comments_event_id_idx ON comments (event_id);
+CREATE INDEX IF NOT EXISTS comments_author_id_idx ON comments (author_id);
+CREATE INDEX IF NOT EXISTS comments_created_idx ON comments (created);
@@ -0,0 +1,5 @@
+ALTER TABLE events ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+  to_tsvector('simple', coalesce(title, '') || ' ' || coalesce(annotation, '') || ' ' || coalesce(description, ''))
+) STORED;
+CREATE INDEX IF NOT EXISTS events_search_vector_idx ON events USING gin (search_vector);
+DROP INDEX IF EXISTS events_text_search_idx;
@@ -0,0 +1,122 @@
+package ru.practicum;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.service.CompilationFeed;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Sql("/dataset.sql")
+public abstract class EwmIntegrationTest {
+    protected static final List<Integer> SIZES = List.of(1, 10, 100);
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @MockBean
+    protected StatsClient statsClient;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CompilationFeed compilationFeed;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @BeforeEach
+    void stubStats() {
+        when(statsClient.getViews(anyList())).thenAnswer(invocation -> invocation.<List<String>>getArgument(0)
+                .stream()
+                .collect(Collectors.toMap(Function.identity(), uri -> 0L)));
+        when(statsClient.getStatsUnique(anyString())).thenReturn(ResponseEntity.ok(0L));
+    }
+
+    /**
+     * Performs the request for every size in {@link #SIZES} on cold caches and checks that each response holds
+     * that many items while the number of statements Hibernate prepares stays the same.
+     */
+    protected void assertStatementsIndependentOfSize(IntFunction<MockHttpServletRequestBuilder> request,
+                                                     String itemsPath) throws Exception {
+        Map<Integer, Long> statements = new LinkedHashMap<>();
+        for (int size : SIZES) {
+            statements.put(size, countStatements(request.apply(size), itemsPath, size));
+        }
+        assertThat(statements.values().stream().distinct())
+                .as("SQL statements per size %s", statements)
+                .hasSize(1);
+    }
+
+    protected long countStatements(MockHttpServletRequestBuilder request, String itemsPath, int items)
+            throws Exception {
+        cacheManager.getCacheNames().forEach(name -> Objects.requireNonNull(cacheManager.getCache(name)).clear());
+        compilationFeed.invalidate();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(itemsPath + ".length()").value(items));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            // без UTF-8 локали полнотекстовый поиск не приводит кириллицу к нижнему регистру
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder()
+                    .setLocaleConfig("encoding", "UTF8")
+                    .setLocaleConfig("locale", "C.UTF-8")
+                    .start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                    // the process is going away anyway
+                }
+            }));
+            return postgres;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.controller;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.EwmIntegrationTest;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class CategoryControllerTest extends EwmIntegrationTest {
+
+    @Test
+    void getCategories() throws Exception {
+        assertStatementsIndependentOfSize(size -> get("/categories").param("size", String.valueOf(size)), "$");
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.controller;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.EwmIntegrationTest;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class CommentControllerTest extends EwmIntegrationTest {
+
+    @Test
+    void getEventsCommentedByUser() throws Exception {
+        assertStatementsIndependentOfSize(size -> get("/users/105/comment").param("size", String.valueOf(size)), "$");
+    }
+
+    @Test
+    void getAllComments() throws Exception {
+        assertStatementsIndependentOfSize(size -> get("/admin/comment")
+                .param("sort", "NEW")
+                .param("size", String.valueOf(size)), "$");
+    }
+}
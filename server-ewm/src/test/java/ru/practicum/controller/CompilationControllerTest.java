@@ -0,0 +1,54 @@
+package ru.practicum.controller;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.EwmIntegrationTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CompilationControllerTest extends EwmIntegrationTest {
+    private static final Map<Integer, Long> COMPILATION_BY_EVENTS = Map.of(1, 3L, 10, 2L, 100, 1L);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void getCompilations() throws Exception {
+        assertStatementsIndependentOfSize(size -> get("/compilations").param("size", String.valueOf(size)), "$");
+    }
+
+    @Test
+    void getPinnedCompilations() throws Exception {
+        assertStatementsIndependentOfSize(size -> get("/compilations")
+                .param("pinned", "true")
+                .param("size", String.valueOf(size)), "$");
+    }
+
+    @Test
+    void cachedPinnedFeedOpensNoTransaction() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        MockHttpServletRequestBuilder request = get("/compilations").param("pinned", "true");
+        countStatements(request, "$", 10);
+        assertThat(statistics.getTransactionCount()).as("rebuild transactions").isEqualTo(1);
+
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+
+        assertThat(statistics.getTransactionCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void getCompilation() throws Exception {
+        assertStatementsIndependentOfSize(events -> get("/compilations/{compId}", COMPILATION_BY_EVENTS.get(events)),
+                "$.events");
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.controller;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.EwmIntegrationTest;
+
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class EventControllerTest extends EwmIntegrationTest {
+    /**
+     * Events 5, 3 and 1 have 1, 10 and 100 comments; their initiators are users 7, 5 and 3.
+     */
+    private static final Map<Integer, Long> EVENT_BY_COMMENTS = Map.of(1, 5L, 10, 3L, 100, 1L);
+
+    @Test
+    void getEvents() throws Exception {
+        assertStatementsIndependentOfSize(size -> get("/events").param("size", String.valueOf(size)), "$");
+    }
+
+    @Test
+    void getEventsByText() throws Exception {
+        assertStatementsIndependentOfSize(size -> get("/events")
+                .param("text", "event")
+                .param("sort", "EVENT_DATE")
+                .param("size", String.valueOf(size)), "$");
+    }
+
+    @Test
+    void getEventsForAdmin() throws Exception {
+        assertStatementsIndependentOfSize(size -> get("/admin/events").param("size", String.valueOf(size)), "$");
+    }
+
+    @Test
+    void getEventsForAdminByUserAndState() throws Exception {
+        assertStatementsIndependentOfSize(size -> get("/admin/events")
+                .param("users", "1")
+                .param("states", "PUBLISHED")
+                .param("size", String.valueOf(size)), "$");
+    }
+
+    @Test
+    void getEventsForAdminByUserInAnyState() throws Exception {
+        assertStatementsIndependentOfSize(size -> get("/admin/events")
+                .param("users", "1")
+                .param("size", String.valueOf(size)), "$");
+    }
+
+    @Test
+    void getEventsByUser() throws Exception {
+        assertStatementsIndependentOfSize(size -> get("/users/1/events").param("size", String.valueOf(size)), "$");
+    }
+
+    @Test
+    void getEvent() throws Exception {
+        assertStatementsIndependentOfSize(comments -> get("/events/{id}", EVENT_BY_COMMENTS.get(comments)),
+                "$.commentDtos");
+    }
+
+    @Test
+    void getEventByUser() throws Exception {
+        assertStatementsIndependentOfSize(comments -> {
+            long eventId = EVENT_BY_COMMENTS.get(comments);
+            return get("/users/{userId}/events/{eventId}", eventId % 100 + 2, eventId);
+        }, "$.commentDtos");
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.EwmIntegrationTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class RequestControllerTest extends EwmIntegrationTest {
+    private static final Map<Integer, Long> USER_BY_REQUESTS = Map.of(1, 102L, 10, 103L, 100, 104L);
+    private static final Map<Integer, Long> EVENT_BY_REQUESTS = Map.of(1, 6L, 10, 4L, 100, 2L);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void getRequestsByUser() throws Exception {
+        assertStatementsIndependentOfSize(requests -> get("/users/{userId}/requests", USER_BY_REQUESTS.get(requests)),
+                "$");
+    }
+
+    @Test
+    void getRequestsByEvent() throws Exception {
+        assertStatementsIndependentOfSize(requests -> get("/users/1/events/{eventId}/requests",
+                EVENT_BY_REQUESTS.get(requests)), "$");
+    }
+
+    @Test
+    void statusUpdateReturnsOnlyRequestsItChanged() throws Exception {
+        // event 2 of user 1 has 100 pending requests and a participant limit of 0
+        List<Integer> ids = jdbcTemplate.queryForList("select id from requests where event_id = 2 order by id limit 6",
+                Integer.class);
+        updateStatus(ids.subList(0, 3), "REJECTED")
+                .andExpect(jsonPath("$.confirmedRequests", empty()))
+                .andExpect(jsonPath("$.rejectedRequests[*].id", containsInAnyOrder(ids.subList(0, 3).toArray())));
+
+        updateStatus(ids, "REJECTED")
+                .andExpect(jsonPath("$.confirmedRequests", empty()))
+                .andExpect(jsonPath("$.rejectedRequests[*].id", containsInAnyOrder(ids.subList(3, 6).toArray())));
+    }
+
+    @Test
+    void confirmationDoesNotReportEarlierRejections() throws Exception {
+        jdbcTemplate.update("update events set participant_limit = 10 where id = 2");
+        List<Integer> ids = jdbcTemplate.queryForList("select id from requests where event_id = 2 order by id limit 5",
+                Integer.class);
+        updateStatus(ids.subList(0, 2), "REJECTED");
+
+        updateStatus(ids, "CONFIRMED")
+                .andExpect(jsonPath("$.confirmedRequests[*].id", containsInAnyOrder(ids.subList(2, 5).toArray())))
+                .andExpect(jsonPath("$.rejectedRequests", empty()));
+    }
+
+    private ResultActions updateStatus(List<Integer> ids, String status) throws Exception {
+        String body = String.format("{\"requestIds\": [%s], \"status\": \"%s\"}",
+                ids.stream().map(String::valueOf).collect(Collectors.joining(", ")), status);
+        return mockMvc.perform(patch("/users/1/events/2/requests")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk());
+    }
+}
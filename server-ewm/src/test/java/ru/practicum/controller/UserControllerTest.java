@@ -0,0 +1,29 @@
+package ru.practicum.controller;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.EwmIntegrationTest;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class UserControllerTest extends EwmIntegrationTest {
+
+    @Test
+    void getUsers() throws Exception {
+        assertStatementsIndependentOfSize(size -> get("/admin/users").param("size", String.valueOf(size)), "$");
+    }
+
+    @Test
+    void getUsersByIds() throws Exception {
+        assertStatementsIndependentOfSize(size -> get("/admin/users")
+                .param("ids", ids(size))
+                .param("size", String.valueOf(size)), "$");
+    }
+
+    private static String ids(int count) {
+        StringBuilder ids = new StringBuilder("1");
+        for (int id = 2; id <= count; id++) {
+            ids.append(',').append(id);
+        }
+        return ids.toString();
+    }
+}
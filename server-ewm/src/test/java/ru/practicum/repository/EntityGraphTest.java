@@ -0,0 +1,100 @@
+package ru.practicum.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.EwmIntegrationTest;
+import ru.practicum.enums.State;
+import ru.practicum.model.Comment;
+import ru.practicum.model.Event;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional
+class EntityGraphTest extends EwmIntegrationTest {
+    private static final List<Long> IDS = LongStream.rangeClosed(1, 100).boxed().collect(Collectors.toList());
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void clearStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void eventsComeWithInitiatorAndCategory() {
+        assertStatements(2, () -> eventRepository.findAll(PageRequest.of(0, 100)).getContent());
+        assertStatements(1, () -> eventRepository.findAllById(IDS));
+        assertStatements(2, () -> eventRepository.findByIdIn(IDS, PageRequest.of(0, 100)).getContent());
+        assertStatements(2, () -> eventRepository.findByInitiatorId(1L, PageRequest.of(0, 100)).getContent());
+        assertStatements(1, () -> List.of(eventRepository.findById(1L).orElseThrow()));
+        assertStatements(1, () -> List.of(eventRepository.findByIdAndStateIn(2L, List.of(State.PUBLISHED))
+                .orElseThrow()));
+    }
+
+    @Test
+    void commentsComeWithAuthor() {
+        assertCommentStatements(1, () -> commentRepository.findByEventId(1L));
+        assertCommentStatements(1, () -> commentRepository.findByEventIdIn(IDS));
+        assertCommentStatements(2, () -> commentRepository.findAll(PageRequest.of(0, 100)).getContent());
+    }
+
+    /**
+     * Runs the query on an empty persistence context, touches the associations the mappers read and checks that
+     * nothing beyond the query itself (and the count query of a full page) reached the database.
+     */
+    private void assertStatements(int statements, Supplier<Collection<Event>> query) {
+        clearSession();
+        Collection<Event> events = query.get();
+        events.forEach(event -> {
+            assertThat(event.getInitiator().getName()).isNotNull();
+            assertThat(event.getCategory().getName()).isNotNull();
+        });
+        assertThat(events).isNotEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(statistics.getEntityFetchCount()).isZero();
+    }
+
+    private void assertCommentStatements(int statements, Supplier<Collection<Comment>> query) {
+        clearSession();
+        Collection<Comment> comments = query.get();
+        comments.forEach(comment -> {
+            assertThat(comment.getAuthor().getName()).isNotNull();
+            assertThat(comment.getEvent().getId()).isNotNull();
+        });
+        assertThat(comments).isNotEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(statistics.getEntityFetchCount()).isZero();
+    }
+
+    private void clearSession() {
+        entityManager.clear();
+        statistics.clear();
+    }
+}
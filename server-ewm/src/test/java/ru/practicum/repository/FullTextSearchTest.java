@@ -0,0 +1,82 @@
+package ru.practicum.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.EwmIntegrationTest;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "ewm.events.search-mode=FULL_TEXT")
+class FullTextSearchTest extends EwmIntegrationTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void describeEvents() {
+        jdbcTemplate.update("update events set description = 'Концерт симфонического оркестра' where id = 7");
+        jdbcTemplate.update("update events set title = 'Оркестр', annotation = 'Оркестр играет джаз', " +
+                "description = 'Открытая репетиция: оркестр и хор' where id = 11");
+        jdbcTemplate.update("update events set annotation = 'Концерт камерной музыки', " +
+                "description = 'Второй концерт сезона' where id = 13");
+    }
+
+    @Test
+    void findsWordsInAnyFieldIgnoringCase() throws Exception {
+        mockMvc.perform(get("/events").param("text", "ОРКЕСТР"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(11)));
+    }
+
+    @Test
+    void ranksByRelevance() throws Exception {
+        mockMvc.perform(get("/events").param("text", "концерт"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(13, 7)));
+    }
+
+    @Test
+    void requiresEveryWord() throws Exception {
+        mockMvc.perform(get("/events").param("text", "концерт симфонического"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(7)));
+    }
+
+    @Test
+    void doesNotMatchPartsOfWords() throws Exception {
+        mockMvc.perform(get("/events").param("text", "оркес"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", empty()));
+    }
+
+    @Test
+    void matchUsesTextSearchIndex() {
+        String plan = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("set enable_seqscan = off");
+                StringBuilder rows = new StringBuilder();
+                try (ResultSet resultSet = statement.executeQuery("explain select id from events " +
+                        "where search_vector @@ plainto_tsquery('simple', 'оркестр')")) {
+                    while (resultSet.next()) {
+                        rows.append(resultSet.getString(1)).append('\n');
+                    }
+                } finally {
+                    statement.execute("reset enable_seqscan");
+                }
+                return rows.toString();
+            }
+        });
+        assertThat(plan).contains("events_search_vector_idx");
+    }
+}
@@ -0,0 +1,200 @@
+package ru.practicum.repository;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.EwmIntegrationTest;
+import ru.practicum.enums.State;
+import ru.practicum.service.CompilationFeed;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Проверяет, что индексы из миграций подходят под запросы приложения. Каждый сценарий выполняет настоящий вызов
+ * приложения, перехватывает через datasource-proxy SQL и параметры, которые ушли в базу, и строит для них EXPLAIN
+ * с настройками планировщика по умолчанию на наборе из ста тысяч событий после ANALYZE.
+ */
+class IndexUsageTest extends EwmIntegrationTest {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CompilationFeed compilationFeed;
+
+    private final QueryCapture capture = new QueryCapture();
+
+    @BeforeEach
+    void startCapture() {
+        ((ProxyDataSource) dataSource).getProxyConfig().getQueryListener().addListener(capture);
+    }
+
+    @AfterEach
+    void stopCapture() {
+        ((ProxyDataSource) dataSource).getProxyConfig().getQueryListener().getListeners().remove(capture);
+    }
+
+    @TestFactory
+    @Sql({"/dataset.sql", "/index-dataset.sql"})
+    Stream<DynamicTest> queriesUseIndexes() {
+        Map<String, Object> event = jdbcTemplate.queryForMap("select id, user_id from events " +
+                "where state = 'PUBLISHED' and id > 50000 order by id limit 1");
+        long eventId = ((Number) event.get("id")).longValue();
+        long initiatorId = ((Number) event.get("user_id")).longValue();
+        String rangeStart = LocalDateTime.now().plusDays(30).format(FORMATTER);
+        String rangeEnd = LocalDateTime.now().plusDays(60).format(FORMATTER);
+        String dayAgo = LocalDateTime.now().minusDays(1).format(FORMATTER);
+        String now = LocalDateTime.now().format(FORMATTER);
+        return Stream.of(
+                scenario("events_event_date_id_idx", "events",
+                        request(get("/events").param("sort", "EVENT_DATE").param("cursor", ""))),
+                scenario("events_views_id_idx", "events",
+                        request(get("/events").param("sort", "VIEWS").param("cursor", ""))),
+                scenario("events_state_event_date_idx", "events", request(get("/admin/events")
+                        .param("states", "PENDING").param("rangeStart", rangeStart).param("rangeEnd", rangeEnd))),
+                // опубликованных событий большинство, поэтому обход первичного ключа дешевле events_state_id_idx
+                scenario("events_pkey", "events",
+                        () -> eventRepository.findIdsByState(State.PUBLISHED, 50_000L, PageRequest.of(0, 200))),
+                scenario("events_user_id_idx", "events", request(get("/users/{userId}/events", initiatorId))),
+                scenario("events_category_id_idx", "events",
+                        request(get("/admin/events").param("categories", "1", "2"))),
+                scenario("events_annotation_trgm_idx", "events",
+                        request(get("/events").param("text", "c4ca4238a0b9"))),
+                scenario("events_description_trgm_idx", "events",
+                        request(get("/events").param("text", "c4ca4238a0b9"))),
+                scenario("requests_event_id_status_idx", "requests",
+                        request(get("/users/{userId}/events/{eventId}/requests", initiatorId, eventId))),
+                scenario("requests_user_id_event_id_idx", "requests", request(get("/users/5000/requests"))),
+                scenario("compilations_pinned_idx", "compilations",
+                        request(get("/compilations").param("pinned", "true"))),
+                scenario("comments_event_id_idx", "comments", request(get("/events/{id}", eventId))),
+                scenario("comments_author_id_idx", "comments", request(get("/users/5000/comment"))),
+                scenario("comments_created_idx", "comments", request(get("/admin/comment")
+                        .param("sort", "NEW").param("start", dayAgo).param("end", now))),
+                // в приложении нет запроса по events_id: индекс нужен каскаду FK_event_id при удалении пользователя,
+                // поэтому проверяется запрос, который выполняет сам PostgreSQL
+                dynamicTest("compilations_events_events_id_idx", () -> assertThat(explain(
+                        "delete from only compilations_events where events_id = ?", List.of(setLong(eventId))))
+                        .contains("compilations_events_events_id_idx")
+                        .doesNotContain("Seq Scan on compilations_events"))
+        );
+    }
+
+    private DynamicTest scenario(String index, String table, Executable action) {
+        return dynamicTest(index, () -> {
+            cacheManager.getCacheNames().forEach(name -> Objects.requireNonNull(cacheManager.getCache(name)).clear());
+            compilationFeed.invalidate();
+            List<QueryInfo> queries = capture.during(action);
+            String plans = queries.stream()
+                    .filter(query -> query.getQuery().contains(table))
+                    .map(query -> explain(query.getQuery(), query.getParametersList().isEmpty()
+                            ? List.of() : query.getParametersList().get(0)))
+                    .collect(Collectors.joining("\n"));
+            assertThat(plans).as("планы запросов к %s", table)
+                    .isNotBlank()
+                    .contains(index)
+                    .doesNotContain("Seq Scan on " + table + " ");
+        });
+    }
+
+    private Executable request(MockHttpServletRequestBuilder request) {
+        return () -> mockMvc.perform(request).andExpect(status().isOk());
+    }
+
+    private String explain(String sql, List<ParameterSetOperation> parameters) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                for (ParameterSetOperation parameter : parameters) {
+                    parameter.getMethod().invoke(statement, parameter.getArgs());
+                }
+                StringBuilder plan = new StringBuilder(sql).append('\n');
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new SQLException("Не удалось повторить параметры запроса " + sql, e);
+            }
+        });
+    }
+
+    private static ParameterSetOperation setLong(long value) throws NoSuchMethodException {
+        return new ParameterSetOperation(PreparedStatement.class.getMethod("setLong", int.class, long.class),
+                new Object[]{1, value});
+    }
+
+    /**
+     * Collects the statements the calling thread executes while an action runs, so background jobs and the
+     * EXPLAIN statements themselves are left out.
+     */
+    private static class QueryCapture implements QueryExecutionListener {
+        private final List<QueryInfo> queries = new CopyOnWriteArrayList<>();
+        private volatile Thread thread;
+
+        List<QueryInfo> during(Executable action) throws Throwable {
+            queries.clear();
+            thread = Thread.currentThread();
+            try {
+                action.execute();
+            } finally {
+                thread = null;
+            }
+            return new ArrayList<>(queries);
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (Thread.currentThread() == thread) {
+                queries.addAll(queryInfoList);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.EwmIntegrationTest;
+import ru.practicum.repository.EventRepository;
+import ru.practicum.sql.RequestSqlStatistics;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class EventViewsRefresherTest extends EwmIntegrationTest {
+    private static final int EVENTS = 240;
+    private static final int BATCH_SIZE = 100;
+
+    @Autowired
+    private EventRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CompilationFeed compilationFeed;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Long> views = new HashMap<>();
+
+    private EventViewsRefresher refresher;
+
+    @BeforeEach
+    void createRefresher() {
+        refresher = new EventViewsRefresher(repository, statsClient, transactionTemplate, compilationFeed);
+        ReflectionTestUtils.setField(refresher, "enabled", true);
+        ReflectionTestUtils.setField(refresher, "batchSize", BATCH_SIZE);
+        when(statsClient.getViews(anyList())).thenAnswer(invocation -> {
+            List<String> uris = invocation.getArgument(0);
+            Map<String, Long> result = new HashMap<>();
+            uris.stream().filter(views::containsKey).forEach(uri -> result.put(uri, views.get(uri)));
+            return result;
+        });
+    }
+
+    @AfterEach
+    void finishStatistics() {
+        RequestSqlStatistics.finish();
+    }
+
+    @Test
+    void refreshUpdatesOnlyChangedViews() {
+        for (long id = 3; id <= EVENTS; id += 3) {
+            views.put("/events/" + id, id);
+        }
+
+        assertThat(refresh()).isEqualTo(EVENTS / 3);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from events where views = id", Long.class))
+                .isEqualTo(EVENTS / 3);
+
+        assertThat(refresh()).isZero();
+
+        views.put("/events/7", 70L);
+        assertThat(refresh()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select views from events where id = 7", Long.class)).isEqualTo(70L);
+    }
+
+    @Test
+    void readPathsDoNotWriteViews() throws Exception {
+        when(statsClient.getStatsUnique(anyString())).thenReturn(ResponseEntity.ok(42L));
+        views.put("/events/1", 42L);
+        meterRegistry.find("sql.request.writes").meters().forEach(meterRegistry::remove);
+
+        mockMvc.perform(get("/events/{id}", 1)).andExpect(status().isOk()).andExpect(jsonPath("$.views").value(42));
+        mockMvc.perform(get("/events").param("size", "100")).andExpect(status().isOk());
+
+        assertThat(writes("/events/{id}").count()).isEqualTo(1);
+        assertThat(writes("/events/{id}").totalAmount()).isZero();
+        assertThat(writes("/events").count()).isEqualTo(1);
+        assertThat(writes("/events").totalAmount()).isZero();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from events where views <> 0", Long.class)).isZero();
+    }
+
+    /**
+     * JDBC statements that change data, as counted by the SQL accounting listener for each request to the endpoint.
+     */
+    private DistributionSummary writes(String uri) {
+        return meterRegistry.get("sql.request.writes").tag("method", "GET").tag("uri", uri).summary();
+    }
+
+    /**
+     * Runs one refresh and returns the number of rows it updated. Every page of ids costs one select and one
+     * batched update, and the ids themselves are the only rows read.
+     */
+    private long refresh() {
+        RequestSqlStatistics statistics = RequestSqlStatistics.start();
+        refresher.refresh();
+        int pages = EVENTS / BATCH_SIZE + 1;
+        assertThat(statistics.getStatements()).isEqualTo(2L * pages);
+        assertThat(statistics.getWrites()).isEqualTo(pages);
+        return statistics.getRows() - EVENTS;
+    }
+}
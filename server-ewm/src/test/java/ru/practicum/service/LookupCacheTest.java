@@ -0,0 +1,91 @@
+package ru.practicum.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.EwmIntegrationTest;
+import ru.practicum.dto.CategoryDto;
+import ru.practicum.dto.UserDto;
+import ru.practicum.model.Category;
+
+import java.util.List;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LookupCacheTest extends EwmIntegrationTest {
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void clearCaches() {
+        cacheManager.getCacheNames().forEach(name -> cache(name).clear());
+    }
+
+    @Test
+    void cachesDtosInsteadOfEntities() {
+        categoryService.getCategory(1L);
+        categoryService.getAllById(List.of(2L, 3L));
+        userService.getUser(1L);
+
+        assertThat(cache(CategoryServiceImpl.CATEGORY_DTOS).get(1L)).extracting(Cache.ValueWrapper::get)
+                .isEqualTo(CategoryDto.builder().id(1L).name("category 1").build());
+        assertThat(cache(CategoryServiceImpl.CATEGORY_DTOS).get(3L)).extracting(Cache.ValueWrapper::get)
+                .isInstanceOf(CategoryDto.class);
+        assertThat(cache(UserServiceImpl.USERS).get(1L)).extracting(Cache.ValueWrapper::get)
+                .isInstanceOf(UserDto.class);
+    }
+
+    @Test
+    void cachedLookupsReturnSeparateCopies() {
+        Category first = categoryService.getCategory(1L);
+        first.setName("changed by a caller");
+
+        Category second = categoryService.getCategory(1L);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getName()).isEqualTo("category 1");
+    }
+
+    @Test
+    void updateEvictsCategoryAfterCommit() {
+        categoryService.getById(1L);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            categoryService.update(1L, CategoryDto.builder().name("renamed").build());
+            assertThat(cache(CategoryServiceImpl.CATEGORY_DTOS).get(1L)).isNotNull();
+        });
+
+        assertThat(cache(CategoryServiceImpl.CATEGORY_DTOS).get(1L)).isNull();
+        assertThat(categoryService.getById(1L).getName()).isEqualTo("renamed");
+    }
+
+    @Test
+    void rolledBackDeleteKeepsCachedUser() {
+        userService.getUser(120L);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.delete(120L);
+            status.setRollbackOnly();
+        });
+
+        assertThat(cache(UserServiceImpl.USERS).get(120L)).isNotNull();
+        assertThat(userService.getUser(120L).getId()).isEqualTo(120L);
+    }
+
+    private Cache cache(String name) {
+        return Objects.requireNonNull(cacheManager.getCache(name));
+    }
+}
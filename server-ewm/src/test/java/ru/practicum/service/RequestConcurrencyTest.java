@@ -0,0 +1,137 @@
+package ru.practicum.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.EwmIntegrationTest;
+import ru.practicum.dto.UpdateRequestDtoRequest;
+import ru.practicum.enums.Status;
+import ru.practicum.exception.ConflictException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs a few hundred requests at once on as many threads, with a connection pool of the same size, so every task
+ * holds its own connection and the row locks, not the pool, decide the order.
+ */
+@Slf4j
+@TestPropertySource(properties = "spring.datasource.hikari.maximum-pool-size=" + RequestConcurrencyTest.THREADS)
+class RequestConcurrencyTest extends EwmIntegrationTest {
+    static final int THREADS = 200;
+    private static final int USERS = 500;
+
+    @Autowired
+    private RequestService requestService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void addUsers() {
+        // users 121..620 on top of the dataset
+        jdbcTemplate.update("insert into users (name, email) select 'user ' || i, 'user' || i || '@mail.ru' " +
+                "from generate_series(121, ?) i", 120 + USERS);
+    }
+
+    @Test
+    void concurrentRequestsDoNotExceedParticipantLimit() throws Exception {
+        // event 1 belongs to user 3, 500 users apply at once
+        jdbcTemplate.update("update events set participant_limit = 50, request_moderation = false where id = 1");
+        List<Runnable> tasks = new ArrayList<>();
+        for (long userId = 121; userId <= 120 + USERS; userId++) {
+            long requester = userId;
+            tasks.add(() -> requestService.createRequest(1L, requester));
+        }
+
+        int conflicts = runConcurrently("createRequest", tasks);
+
+        assertThat(conflicts).isEqualTo(USERS - 50);
+        assertThat(countRequests(1, "CONFIRMED")).isEqualTo(50);
+        assertThat(confirmedRequests(1)).isEqualTo(50);
+    }
+
+    @Test
+    void concurrentBulkConfirmationsDoNotExceedParticipantLimit() throws Exception {
+        // event 2 of user 1 gets 400 more pending requests, 250 initiator sessions confirm two of the 500 each
+        jdbcTemplate.update("insert into requests (user_id, event_id, status, created) " +
+                "select u, 2, 'PENDING', now() from generate_series(121, 520) u");
+        jdbcTemplate.update("update events set participant_limit = 150 where id = 2");
+        List<Long> ids = jdbcTemplate.queryForList("select id from requests where event_id = 2 order by id", Long.class);
+        List<Runnable> tasks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += 2) {
+            UpdateRequestDtoRequest update = UpdateRequestDtoRequest.builder()
+                    .requestIds(ids.subList(from, from + 2))
+                    .status(Status.CONFIRMED)
+                    .build();
+            tasks.add(() -> requestService.update(2L, 1L, update));
+        }
+
+        int conflicts = runConcurrently("update", tasks);
+
+        assertThat(conflicts).isEqualTo(250 - 75);
+        assertThat(countRequests(2, "CONFIRMED")).isEqualTo(150);
+        assertThat(countRequests(2, "REJECTED")).isZero();
+        assertThat(countRequests(2, "PENDING")).isEqualTo(350);
+        assertThat(confirmedRequests(2)).isEqualTo(150);
+    }
+
+    /**
+     * Starts all tasks at once, logs the throughput and returns how many of them were refused with a
+     * {@link ConflictException}; any other failure fails the test.
+     */
+    private int runConcurrently(String operation, List<Runnable> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Runnable task : tasks) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                task.run();
+                return null;
+            }));
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        int conflicts = 0;
+        try {
+            for (Future<?> future : futures) {
+                try {
+                    future.get(30, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof ConflictException)) {
+                        throw e;
+                    }
+                    conflicts++;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        log.info("{}: {} запросов в {} потоков за {} с, {} запросов в секунду, отказов {}", operation, tasks.size(),
+                THREADS, String.format("%.2f", seconds), Math.round(tasks.size() / seconds), conflicts);
+        assertThat(tasks.size() / seconds).as("запросов в секунду").isGreaterThan(10);
+        return conflicts;
+    }
+
+    private long countRequests(long eventId, String status) {
+        return jdbcTemplate.queryForObject("select count(*) from requests where event_id = ? and status = ?",
+                Long.class, eventId, status);
+    }
+
+    private long confirmedRequests(long eventId) {
+        return jdbcTemplate.queryForObject("select confirmed_requests from events where id = ?", Long.class, eventId);
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.EwmIntegrationTest;
+import ru.practicum.HitSenderProperties;
+import ru.practicum.StatsClient;
+import ru.practicum.StatsHttpProperties;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Public event endpoints against a real {@link StatsClient} whose server refuses connections: hits are dropped and
+ * views come from the column the refresher maintains.
+ */
+class StatsOutageTest extends EwmIntegrationTest {
+    private static final String DEAD_URL = "http://localhost:1";
+    private static final long STORED_VIEWS = 17;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private StatsHttpProperties httpProperties;
+
+    private StatsClient deadClient;
+
+    @BeforeEach
+    void delegateToDeadServer() {
+        httpProperties = new StatsHttpProperties();
+        httpProperties.setRetries(0);
+        deadClient = new StatsClient(DEAD_URL, "ewm-service", new RestTemplateBuilder(), new HitSenderProperties(),
+                httpProperties, new SimpleMeterRegistry());
+        when(statsClient.createHit(any(HttpServletRequest.class)))
+                .thenAnswer(invocation -> deadClient.createHit(invocation.getArgument(0)));
+        when(statsClient.getViews(anyList()))
+                .thenAnswer(invocation -> deadClient.getViews(invocation.getArgument(0)));
+        when(statsClient.getStatsUnique(anyString()))
+                .thenAnswer(invocation -> deadClient.getStatsUnique(invocation.getArgument(0)));
+        jdbcTemplate.update("UPDATE events SET views = ?", STORED_VIEWS);
+    }
+
+    @AfterEach
+    void closeDeadClient() throws IOException {
+        deadClient.destroy();
+    }
+
+    @Test
+    void listIsServedWithStoredViewsWhileStatsServerIsDown() throws Exception {
+        for (int i = 0; i <= httpProperties.getBreakerFailureThreshold(); i++) {
+            mockMvc.perform(get("/events").param("size", "10"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(10))
+                    .andExpect(jsonPath("$[0].views").value(STORED_VIEWS));
+        }
+        assertThat(deadClient.isAvailable()).isFalse();
+
+        mockMvc.perform(get("/events").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].views").value(STORED_VIEWS));
+    }
+
+    @Test
+    void eventIsServedWithStoredViewsWhileStatsServerIsDown() throws Exception {
+        mockMvc.perform(get("/events/{id}", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.views").value(STORED_VIEWS));
+    }
+}
@@ -0,0 +1,49 @@
+TRUNCATE comments, compilations_events, compilations, requests, events, categories, users RESTART IDENTITY CASCADE;
+
+INSERT INTO users (name, email)
+SELECT 'user ' || i, 'user' || i || '@mail.ru' FROM generate_series(1, 120) i;
+
+INSERT INTO categories (name)
+SELECT 'category ' || i FROM generate_series(1, 120) i;
+
+-- even events belong to user 1, odd ones are spread over users 2..101
+INSERT INTO events (title, annotation, category_id, paid, event_date, user_id, description, participant_limit, state,
+                    created_on, published_on, lat, lon, request_moderation, confirmed_requests, views)
+SELECT 'event ' || i, 'annotation of event ' || i, i % 120 + 1, i % 2 = 0, now() + i * interval '1 hour',
+       CASE WHEN i % 2 = 0 THEN 1 ELSE i % 100 + 2 END, 'description of event ' || i, 0, 'PUBLISHED',
+       now() - interval '1 day', now() - interval '1 hour', 55.75, 37.62, true, 0, 0
+FROM generate_series(1, 240) i;
+
+-- events 2, 4 and 6 of user 1 have 100, 10 and 1 requests
+INSERT INTO requests (user_id, event_id, status, created)
+SELECT u, e.id, 'PENDING', now()
+FROM (VALUES (2, 100), (4, 10), (6, 1)) AS e(id, requests), generate_series(2, 101) u
+WHERE u < 2 + e.requests;
+
+-- users 102, 103 and 104 have 1, 10 and 100 requests
+INSERT INTO requests (user_id, event_id, status, created)
+SELECT r.user_id, 8 + 2 * k, 'PENDING', now()
+FROM (VALUES (102, 1), (103, 10), (104, 100)) AS r(user_id, requests), generate_series(0, 99) k
+WHERE k < r.requests;
+
+-- user 105 comments 100 events; events 1, 3 and 5 have 100, 10 and 1 comments from different authors
+INSERT INTO comments (text, event_id, author_id, created)
+SELECT 'comment on event ' || (2 * k), 2 * k, 105, now() - k * interval '1 minute'
+FROM generate_series(1, 100) k;
+
+INSERT INTO comments (text, event_id, author_id, created)
+SELECT 'comment of user ' || u, e.id, u, now() - u * interval '1 second'
+FROM (VALUES (1, 100), (3, 10), (5, 1)) AS e(id, comments), generate_series(2, 101) u
+WHERE u < 2 + e.comments;
+
+-- compilations 1, 2 and 3 hold 100, 10 and 1 events, the rest three events each
+INSERT INTO compilations (title, pinned)
+SELECT 'compilation ' || i, i <= 110 FROM generate_series(1, 120) i;
+
+INSERT INTO compilations_events (compilations_id, events_id)
+SELECT c.id, e
+FROM (VALUES (1, 100), (2, 10), (3, 1)) AS c(id, events), generate_series(1, 100) e
+WHERE e <= c.events;
+
+INSERT INTO compilations_events (compilations_id, events_id)
+SELECT c, c + k FROM generate_series(4, 120) c, generate_series(0, 2) k;
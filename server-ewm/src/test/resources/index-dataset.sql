@@ -0,0 +1,37 @@
+-- runs after dataset.sql; large enough that the planner prefers an index wherever a query is selective
+
+INSERT INTO users (name, email)
+SELECT 'user ' || i, 'user' || i || '@mail.ru' FROM generate_series(121, 10120) i;
+
+INSERT INTO categories (name)
+SELECT 'category ' || i FROM generate_series(121, 1000) i;
+
+-- events 241..100240: 90% published, 5% pending, 5% canceled, dates spread over three years
+INSERT INTO events (title, annotation, category_id, paid, event_date, user_id, description, participant_limit, state,
+                    created_on, published_on, lat, lon, request_moderation, confirmed_requests, views)
+SELECT 'event ' || i, 'annotation ' || md5(i::text), i % 1000 + 1, i % 2 = 0,
+       now() - interval '1 year' + (i * 7919 % 26280) * interval '1 hour', 121 + i % 10000,
+       'description ' || md5((-i)::text), 0,
+       CASE i % 20 WHEN 0 THEN 'PENDING' WHEN 1 THEN 'CANCELED' ELSE 'PUBLISHED' END,
+       now() - interval '1 year', now() - interval '1 day', 55.75, 37.62, true, 0, i * 7919 % 10000
+FROM generate_series(1, 100000) i;
+
+-- two requests per event, twenty per user
+INSERT INTO requests (user_id, event_id, status, created)
+SELECT 121 + (k % 10000 + k / 100000 * 5000) % 10000, 241 + k % 100000,
+       CASE k % 3 WHEN 0 THEN 'PENDING' WHEN 1 THEN 'CONFIRMED' ELSE 'REJECTED' END, now()
+FROM generate_series(0, 199999) k;
+
+-- two comments per event, twenty per author, one every 150 seconds over the last year
+INSERT INTO comments (text, event_id, author_id, created)
+SELECT 'comment ' || k, 241 + k * 13 % 100000, 121 + k % 10000, now() - k * interval '150 seconds'
+FROM generate_series(0, 199999) k;
+
+-- one compilation in a hundred is pinned, each holds three events
+INSERT INTO compilations (title, pinned)
+SELECT 'compilation ' || i, i % 100 = 0 FROM generate_series(121, 10120) i;
+
+INSERT INTO compilations_events (compilations_id, events_id)
+SELECT c, 241 + (c * 3 + j) % 100000 FROM generate_series(121, 10120) c, generate_series(0, 2) j;
+
+ANALYZE;
@@ -0,0 +1,328 @@
+package ru.practicum;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+@Slf4j
+public class AsyncHitSender {
+    private static final String SEPARATOR = "\t";
+
+    private final HitSenderProperties properties;
+    private final Consumer<List<NewHitDto>> transport;
+    private final BlockingQueue<NewHitDto> queue;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Object spillLock = new Object();
+    private final Path spillFile;
+    private final Path quarantineFile;
+    private volatile boolean stopped;
+
+    private final AtomicLong sentHits = new AtomicLong();
+    private final AtomicLong droppedHits = new AtomicLong();
+    private final AtomicLong spilledHits = new AtomicLong();
+    private final AtomicLong quarantinedHits = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private volatile long lastFlushMillis;
+    private long replayBackoffMs;
+    private long nextReplayMillis;
+
+    public AsyncHitSender(HitSenderProperties properties, Consumer<List<NewHitDto>> transport) {
+        this.properties = properties;
+        this.transport = transport;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.spillFile = Paths.get(properties.getSpillFile());
+        this.quarantineFile = Paths.get(properties.getQuarantineFile());
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stats-hit-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flush, properties.getFlushIntervalMs(),
+                properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    public void submit(NewHitDto hit) {
+        if (stopped) {
+            if (properties.getOverflowPolicy() == HitOverflowPolicy.SPILL) {
+                spill(List.of(hit), 0);
+            } else {
+                droppedHits.incrementAndGet();
+            }
+            return;
+        }
+        switch (properties.getOverflowPolicy()) {
+            case BLOCK:
+                try {
+                    if (!queue.offer(hit, properties.getBlockTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                        droppedHits.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    droppedHits.incrementAndGet();
+                }
+                break;
+            case SPILL:
+                if (!queue.offer(hit)) {
+                    spill(List.of(hit), 0);
+                }
+                break;
+            case DROP_OLDEST:
+            default:
+                while (!queue.offer(hit)) {
+                    if (queue.poll() != null) {
+                        droppedHits.incrementAndGet();
+                    }
+                }
+        }
+        if (queue.size() >= properties.getBatchSize() && flushScheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    public void shutdown() {
+        stopped = true;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(properties.getFlushIntervalMs() * 2, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getSentHits() {
+        return sentHits.get();
+    }
+
+    public long getDroppedHits() {
+        return droppedHits.get();
+    }
+
+    public long getSpilledHits() {
+        return spilledHits.get();
+    }
+
+    public long getQuarantinedHits() {
+        return quarantinedHits.get();
+    }
+
+    public long getFailedBatches() {
+        return failedBatches.get();
+    }
+
+    public long getLastFlushMillis() {
+        return lastFlushMillis;
+    }
+
+    synchronized void flush() {
+        flushScheduled.set(false);
+        long started = System.nanoTime();
+        boolean attempted = false;
+        boolean delivered = true;
+        if (properties.getOverflowPolicy() == HitOverflowPolicy.SPILL && Files.exists(spillFile)
+                && System.currentTimeMillis() >= nextReplayMillis) {
+            attempted = true;
+            delivered = replaySpill();
+        }
+        List<NewHitDto> batch = new ArrayList<>(properties.getBatchSize());
+        while (queue.drainTo(batch, properties.getBatchSize()) > 0) {
+            if (delivered) {
+                attempted = true;
+                delivered = send(batch, 0);
+            } else {
+                // the server already failed during this flush, so do not wait for a timeout on every batch
+                spillOrDrop(batch, 0);
+            }
+            batch = new ArrayList<>(properties.getBatchSize());
+        }
+        if (attempted) {
+            backOffReplay(delivered);
+        }
+        lastFlushMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+    }
+
+    private void backOffReplay(boolean delivered) {
+        if (delivered) {
+            replayBackoffMs = 0;
+            nextReplayMillis = 0;
+            return;
+        }
+        replayBackoffMs = Math.min(replayBackoffMs == 0 ? properties.getFlushIntervalMs() : replayBackoffMs * 2,
+                properties.getMaxReplayBackoffMs());
+        nextReplayMillis = System.currentTimeMillis() + replayBackoffMs;
+    }
+
+    private boolean send(List<NewHitDto> batch, int attempts) {
+        try {
+            transport.accept(batch);
+            sentHits.addAndGet(batch.size());
+            return true;
+        } catch (HttpClientErrorException e) {
+            if (batch.size() == 1) {
+                log.warn("Сервис статистики отклонил просмотр {}: {}", batch.get(0).getUri(), e.getMessage());
+                // only a rejection counts as an attempt: an outage does not make the hit invalid
+                if (properties.getOverflowPolicy() != HitOverflowPolicy.SPILL) {
+                    droppedHits.incrementAndGet();
+                } else if (attempts + 1 >= properties.getMaxReplayAttempts()) {
+                    quarantine(batch, attempts + 1);
+                } else {
+                    spill(batch, attempts + 1);
+                }
+                return true;
+            }
+            // the batch is rejected as a whole, so resend hits one by one to isolate the invalid ones
+            boolean delivered = true;
+            for (NewHitDto hit : batch) {
+                if (delivered) {
+                    delivered = send(List.of(hit), attempts);
+                } else {
+                    spillOrDrop(List.of(hit), attempts);
+                }
+            }
+            return delivered;
+        } catch (RuntimeException e) {
+            failedBatches.incrementAndGet();
+            log.warn("Не удалось отправить {} просмотров в сервис статистики: {}", batch.size(), e.getMessage());
+            spillOrDrop(batch, attempts);
+            return false;
+        }
+    }
+
+    private void spillOrDrop(List<NewHitDto> hits, int attempts) {
+        if (properties.getOverflowPolicy() == HitOverflowPolicy.SPILL) {
+            spill(hits, attempts);
+        } else {
+            droppedHits.addAndGet(hits.size());
+        }
+    }
+
+    private void spill(List<NewHitDto> hits, int attempts) {
+        synchronized (spillLock) {
+            try {
+                write(spillFile, hits, attempts);
+                spilledHits.addAndGet(hits.size());
+            } catch (IOException e) {
+                log.warn("Не удалось сохранить {} просмотров в файл {}: {}", hits.size(), spillFile, e.getMessage());
+                droppedHits.addAndGet(hits.size());
+            }
+        }
+    }
+
+    private void quarantine(List<NewHitDto> hits, int attempts) {
+        synchronized (spillLock) {
+            try {
+                write(quarantineFile, hits, attempts);
+            } catch (IOException e) {
+                log.warn("Не удалось сохранить {} просмотров в файл {}: {}", hits.size(), quarantineFile,
+                        e.getMessage());
+            }
+            quarantinedHits.addAndGet(hits.size());
+        }
+    }
+
+    private void quarantine(String line) {
+        synchronized (spillLock) {
+            try (BufferedWriter writer = Files.newBufferedWriter(quarantineFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(line);
+                writer.newLine();
+            } catch (IOException e) {
+                log.warn("Не удалось сохранить строку в файл {}: {}", quarantineFile, e.getMessage());
+            }
+            quarantinedHits.incrementAndGet();
+        }
+    }
+
+    private void write(Path file, List<NewHitDto> hits, int attempts) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (NewHitDto hit : hits) {
+                LocalDateTime timestamp = hit.getTimestamp() != null ? hit.getTimestamp() : LocalDateTime.now();
+                writer.write(attempts + SEPARATOR + timestamp + SEPARATOR + hit.getIp() + SEPARATOR
+                        + (hit.getApp() != null ? hit.getApp() : "") + SEPARATOR + hit.getUri());
+                writer.newLine();
+            }
+        }
+    }
+
+    private NewHitDto parse(String[] parts) {
+        return NewHitDto.builder()
+                .timestamp(LocalDateTime.parse(parts[1]))
+                .ip(parts[2])
+                .app(parts[3].isEmpty() ? null : parts[3])
+                .uri(parts[4])
+                .build();
+    }
+
+    private boolean replaySpill() {
+        Map<Integer, List<NewHitDto>> hitsByAttempts = new LinkedHashMap<>();
+        List<String> rejected = new ArrayList<>();
+        synchronized (spillLock) {
+            if (!Files.exists(spillFile)) {
+                return true;
+            }
+            try (BufferedReader reader = Files.newBufferedReader(spillFile, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.split(SEPARATOR, 5);
+                    try {
+                        if (parts.length != 5) {
+                            throw new IllegalArgumentException("ожидалось 5 полей, получено " + parts.length);
+                        }
+                        hitsByAttempts.computeIfAbsent(Integer.parseInt(parts[0]), attempts -> new ArrayList<>())
+                                .add(parse(parts));
+                    } catch (RuntimeException e) {
+                        log.warn("Пропущена некорректная строка файла {}: {}", spillFile, e.getMessage());
+                        rejected.add(line);
+                    }
+                }
+                Files.delete(spillFile);
+            } catch (IOException e) {
+                log.warn("Не удалось прочитать файл {}: {}", spillFile, e.getMessage());
+                return true;
+            }
+        }
+        rejected.forEach(this::quarantine);
+        boolean delivered = true;
+        for (Map.Entry<Integer, List<NewHitDto>> entry : hitsByAttempts.entrySet()) {
+            List<NewHitDto> hits = entry.getValue();
+            for (int from = 0; from < hits.size(); from += properties.getBatchSize()) {
+                List<NewHitDto> batch = hits.subList(from, Math.min(from + properties.getBatchSize(), hits.size()));
+                if (delivered) {
+                    delivered = send(batch, entry.getKey());
+                } else {
+                    spill(batch, entry.getKey());
+                }
+            }
+        }
+        return delivered;
+    }
+}
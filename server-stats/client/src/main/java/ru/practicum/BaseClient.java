@@ -1,5 +1,6 @@
 package ru.practicum;
 
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.web.client.RestTemplate;
 
@@ -28,6 +29,22 @@ public class BaseClient {
         return responseBuilder.build();
     }
 
+    protected <R> ResponseEntity<R> get(String path, Map<String, Object> parameters,
+                                        ParameterizedTypeReference<R> responseType) {
+        ResponseEntity<R> response = rest.exchange(path, HttpMethod.GET, null, responseType, parameters);
+        if (response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
+
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+
+        if (response.hasBody()) {
+            return responseBuilder.body(response.getBody());
+        }
+
+        return responseBuilder.build();
+    }
+
     protected ResponseEntity<Long> get(String path) {
         ResponseEntity<Long> response = rest.exchange(path, HttpMethod.GET, null, Long.class);
         if (response.getStatusCode().is2xxSuccessful()) {
@@ -44,7 +61,11 @@ public class BaseClient {
     }
 
     protected <T> ResponseEntity<HitDto> post(String path, T body) {
-        ResponseEntity<HitDto> response = rest.exchange(path, HttpMethod.POST, new HttpEntity<>(body, defaultHeaders()), HitDto.class);
+        return post(path, body, HitDto.class);
+    }
+
+    protected <T, R> ResponseEntity<R> post(String path, T body, Class<R> responseType) {
+        ResponseEntity<R> response = rest.exchange(path, HttpMethod.POST, new HttpEntity<>(body, defaultHeaders()), responseType);
         if (response.getStatusCode().is2xxSuccessful()) {
             return response;
         }
@@ -0,0 +1,60 @@
+package ru.practicum;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+@Slf4j
+public class CircuitBreaker {
+    private final int failureThreshold;
+    private final long openMillis;
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicBoolean probing = new AtomicBoolean();
+    private final LongSupplier clock;
+    private volatile long openedAt;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this(failureThreshold, openMillis, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(int failureThreshold, long openMillis, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    public boolean allowRequest() {
+        if (openedAt == 0) {
+            return true;
+        }
+        if (clock.getAsLong() - openedAt < openMillis) {
+            return false;
+        }
+        return probing.compareAndSet(false, true);
+    }
+
+    public void onSuccess() {
+        failures.set(0);
+        if (openedAt != 0) {
+            log.info("Сервер статистики снова доступен, circuit breaker закрыт");
+            openedAt = 0;
+        }
+        probing.set(false);
+    }
+
+    public void onFailure() {
+        if (failures.incrementAndGet() >= failureThreshold || probing.get()) {
+            if (openedAt == 0) {
+                log.warn("Сервер статистики недоступен, circuit breaker открыт на {} мс", openMillis);
+            }
+            openedAt = clock.getAsLong();
+        }
+        probing.set(false);
+    }
+
+    public boolean isOpen() {
+        return openedAt != 0;
+    }
+}
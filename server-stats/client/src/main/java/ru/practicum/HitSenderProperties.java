@@ -0,0 +1,26 @@
+package ru.practicum;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "client.hits")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class HitSenderProperties {
+    boolean async = false;
+    int queueCapacity = 10_000;
+    int batchSize = 100;
+    long flushIntervalMs = 1_000;
+    HitOverflowPolicy overflowPolicy = HitOverflowPolicy.DROP_OLDEST;
+    long blockTimeoutMs = 50;
+    String spillFile = "stats-hits.spill";
+    String quarantineFile = "stats-hits.quarantine";
+    int maxReplayAttempts = 10;
+    long maxReplayBackoffMs = 60_000;
+}
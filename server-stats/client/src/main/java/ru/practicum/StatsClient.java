@@ -1,29 +1,81 @@
 package ru.practicum;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
 import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
+@Slf4j
 @Service
-public class StatsClient extends BaseClient {
+public class StatsClient extends BaseClient implements DisposableBean {
+    private static final String REQUESTS = "stats.client.requests";
+    private static final String ERRORS = "stats.client.errors";
+
+    private final String app;
+    private final AsyncHitSender hitSender;
+    private final CloseableHttpClient httpClient;
+    private final CircuitBreaker circuitBreaker;
+    private final int retries;
+    private final long retryBackoffMs;
+    private final MeterRegistry meterRegistry;
 
     @Autowired
-    public StatsClient(@Value("${client.url}") String serverUrl, RestTemplateBuilder builder) {
+    public StatsClient(@Value("${client.url}") String serverUrl, @Value("${client.app:ewm-service}") String app,
+                       RestTemplateBuilder builder, HitSenderProperties hitSenderProperties,
+                       StatsHttpProperties httpProperties, MeterRegistry meterRegistry) {
+        this(serverUrl, app, builder, hitSenderProperties, httpProperties, meterRegistry,
+                createHttpClient(httpProperties));
+    }
+
+    private StatsClient(String serverUrl, String app, RestTemplateBuilder builder,
+                        HitSenderProperties hitSenderProperties, StatsHttpProperties httpProperties,
+                        MeterRegistry meterRegistry, CloseableHttpClient httpClient) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
                         .build()
         );
+        this.app = app;
+        this.httpClient = httpClient;
+        this.circuitBreaker = new CircuitBreaker(httpProperties.getBreakerFailureThreshold(),
+                httpProperties.getBreakerOpenMs());
+        this.retries = httpProperties.getRetries();
+        this.retryBackoffMs = httpProperties.getRetryBackoffMs();
+        this.meterRegistry = meterRegistry;
+        if (hitSenderProperties.isAsync()) {
+            hitSender = new AsyncHitSender(hitSenderProperties, this::sendHits);
+        } else {
+            hitSender = null;
+        }
+        registerMetrics();
     }
 
     public ResponseEntity<Object> getStats(LocalDateTime start, LocalDateTime end,
@@ -34,7 +86,7 @@ public class StatsClient extends BaseClient {
                 "unique", unique,
                 "uri", uris
         );
-        return get("/stats?start={start}&end={end}&uris={uri}&unique={unique}", parameters);
+        return call("getStats", () -> get("/stats?start={start}&end={end}&uris={uri}&unique={unique}", parameters));
     }
 
     public ResponseEntity<Object> getStatsWithoutUnique(LocalDateTime start, LocalDateTime end,
@@ -44,7 +96,7 @@ public class StatsClient extends BaseClient {
                 "end", end,
                 "uri", uris
         );
-        return get("/stats?start={start}&end={end}&uris={uri}", parameters);
+        return call("getStats", () -> get("/stats?start={start}&end={end}&uris={uri}", parameters));
     }
 
     public ResponseEntity<Object> getStatsWithoutUriAndUnique(LocalDateTime start, LocalDateTime end) {
@@ -52,7 +104,7 @@ public class StatsClient extends BaseClient {
                 "start", start,
                 "end", end
         );
-        return get("/stats?start={start}&end={end}", parameters);
+        return call("getStats", () -> get("/stats?start={start}&end={end}", parameters));
     }
 
     public ResponseEntity<Object> getStatsWithoutUri(LocalDateTime start, LocalDateTime end,
@@ -62,18 +114,171 @@ public class StatsClient extends BaseClient {
                 "end", end,
                 "unique", unique
         );
-        return get("/stats?start={start}&end={end}&unique={unique}", parameters);
+        return call("getStats", () -> get("/stats?start={start}&end={end}&unique={unique}", parameters));
     }
 
     public ResponseEntity<Long> getStatsUnique(String uri) {
-        return get("/stats/views?uris=" + uri + "&unique=true");
+        Map<String, Object> parameters = Map.of(
+                "uris", uri
+        );
+        return call("getStatsUnique", () -> get("/stats/views?uris={uris}&unique=true", parameters,
+                new ParameterizedTypeReference<Long>() {
+                }));
+    }
+
+    public Map<String, Long> getViews(List<String> uris) {
+        if (uris.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Object> parameters = Map.of(
+                "uris", String.join(",", uris)
+        );
+        Map<String, Long> views = call("getViews", () -> get("/stats/views/batch?uris={uris}", parameters,
+                new ParameterizedTypeReference<Map<String, Long>>() {
+                })).getBody();
+        return views != null ? views : Map.of();
     }
 
     public ResponseEntity<HitDto> createHit(HttpServletRequest request) {
         NewHitDto hitDto = NewHitDto.builder()
+                .app(app)
                 .ip(request.getRemoteAddr())
                 .uri(request.getRequestURI())
+                .timestamp(LocalDateTime.now())
+                .build();
+        if (hitSender != null) {
+            hitSender.submit(hitDto);
+            return ResponseEntity.accepted().build();
+        }
+        // хит не повторяем: запрос пользователя не должен ждать сервер статистики
+        return call("createHit", 0, () -> post("/hit", hitDto));
+    }
+
+    public Optional<AsyncHitSender> getHitSender() {
+        return Optional.ofNullable(hitSender);
+    }
+
+    public boolean isAvailable() {
+        return !circuitBreaker.isOpen();
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (hitSender != null) {
+            hitSender.shutdown();
+        }
+        httpClient.close();
+    }
+
+    public ResponseEntity<Long> createHits(List<NewHitDto> hits) {
+        return timed("createHits", () -> post("/hit/batch", hits, Long.class));
+    }
+
+    private void sendHits(List<NewHitDto> hits) {
+        createHits(hits);
+    }
+
+    private <T> T call(String operation, Supplier<T> request) {
+        return call(operation, retries, request);
+    }
+
+    private <T> T call(String operation, int maxRetries, Supplier<T> request) {
+        if (!circuitBreaker.allowRequest()) {
+            meterRegistry.counter(ERRORS, "operation", operation, "exception", "CircuitOpen").increment();
+            throw new StatsUnavailableException("Сервер статистики временно недоступен");
+        }
+        long backoff = retryBackoffMs;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                T result = timed(operation, request);
+                circuitBreaker.onSuccess();
+                return result;
+            } catch (ResourceAccessException | HttpServerErrorException e) {
+                if (attempt >= maxRetries) {
+                    circuitBreaker.onFailure();
+                    throw new StatsUnavailableException("Сервер статистики не ответил: " + e.getMessage(), e);
+                }
+                log.debug("Повтор запроса к серверу статистики через {} мс: {}", backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    circuitBreaker.onFailure();
+                    throw new StatsUnavailableException("Запрос к серверу статистики прерван", e);
+                }
+                backoff *= 2;
+            } catch (HttpClientErrorException e) {
+                circuitBreaker.onSuccess();
+                throw e;
+            } catch (RuntimeException e) {
+                circuitBreaker.onFailure();
+                throw e;
+            }
+        }
+    }
+
+    private <T> T timed(String operation, Supplier<T> request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "SUCCESS";
+        try {
+            return request.get();
+        } catch (RuntimeException e) {
+            outcome = "ERROR";
+            meterRegistry.counter(ERRORS, "operation", operation, "exception", e.getClass().getSimpleName())
+                    .increment();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(REQUESTS)
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private void registerMetrics() {
+        Gauge.builder("stats.client.breaker.open", circuitBreaker, breaker -> breaker.isOpen() ? 1 : 0)
+                .register(meterRegistry);
+        if (hitSender != null) {
+            Gauge.builder("stats.client.hits.queue", hitSender, AsyncHitSender::getQueueDepth)
+                    .register(meterRegistry);
+            FunctionCounter.builder("stats.client.hits", hitSender, AsyncHitSender::getSentHits)
+                    .tag("result", "sent")
+                    .register(meterRegistry);
+            FunctionCounter.builder("stats.client.hits", hitSender, AsyncHitSender::getDroppedHits)
+                    .tag("result", "dropped")
+                    .register(meterRegistry);
+            FunctionCounter.builder("stats.client.hits", hitSender, AsyncHitSender::getSpilledHits)
+                    .tag("result", "spilled")
+                    .register(meterRegistry);
+            FunctionCounter.builder("stats.client.hits", hitSender, AsyncHitSender::getQuarantinedHits)
+                    .tag("result", "quarantined")
+                    .register(meterRegistry);
+            FunctionCounter.builder("stats.client.hits.failed.batches", hitSender, AsyncHitSender::getFailedBatches)
+                    .register(meterRegistry);
+        }
+    }
+
+    private static CloseableHttpClient createHttpClient(StatsHttpProperties properties) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                properties.getKeepAliveMs(), TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(properties.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxConnectionsPerRoute());
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(properties.getConnectTimeoutMs())
+                .setConnectionRequestTimeout(properties.getConnectionRequestTimeoutMs())
+                .setSocketTimeout(properties.getReadTimeoutMs())
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return duration > 0 ? Math.min(duration, properties.getKeepAliveMs()) : properties.getKeepAliveMs();
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(properties.getKeepAliveMs(), TimeUnit.MILLISECONDS)
+                .disableAutomaticRetries()
                 .build();
-        return post("/hit", hitDto);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,26 @@
+package ru.practicum;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "client.http")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class StatsHttpProperties {
+    int maxConnections = 50;
+    int maxConnectionsPerRoute = 20;
+    int connectTimeoutMs = 1_000;
+    int connectionRequestTimeoutMs = 500;
+    int readTimeoutMs = 2_000;
+    long keepAliveMs = 30_000;
+    int retries = 2;
+    long retryBackoffMs = 100;
+    int breakerFailureThreshold = 5;
+    long breakerOpenMs = 10_000;
+}
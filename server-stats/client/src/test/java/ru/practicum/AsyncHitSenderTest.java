@@ -0,0 +1,194 @@
+package ru.practicum;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncHitSenderTest {
+    private static final String POISON = "/poison";
+
+    @TempDir
+    Path dir;
+
+    private final List<String> delivered = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private volatile boolean serverDown;
+
+    private AsyncHitSender sender;
+
+    @AfterEach
+    void shutdown() {
+        sender.shutdown();
+    }
+
+    @Test
+    void dropOldestKeepsNewestHits() {
+        create(HitOverflowPolicy.DROP_OLDEST, 3, 0);
+
+        submit(5);
+        sender.flush();
+
+        assertThat(sender.getDroppedHits()).isEqualTo(2);
+        assertThat(delivered).containsExactly("/events/3", "/events/4", "/events/5");
+    }
+
+    @Test
+    void blockWaitsForSpaceThenDrops() {
+        HitSenderProperties properties = create(HitOverflowPolicy.BLOCK, 2, 0);
+
+        submit(2);
+        long started = System.nanoTime();
+        submit(1);
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started))
+                .isGreaterThanOrEqualTo(properties.getBlockTimeoutMs());
+        assertThat(sender.getDroppedHits()).isEqualTo(1);
+        assertThat(sender.getQueueDepth()).isEqualTo(2);
+    }
+
+    @Test
+    void spillWritesOverflowToFile() throws IOException {
+        create(HitOverflowPolicy.SPILL, 2, 0);
+
+        submit(3);
+
+        assertThat(sender.getSpilledHits()).isEqualTo(1);
+        assertThat(Files.readAllLines(spillFile())).hasSize(1).allMatch(line -> line.endsWith("/events/3"));
+    }
+
+    @Test
+    void outageNeitherCountsAttemptsNorQuarantines() throws IOException {
+        create(HitOverflowPolicy.SPILL, 10, 0);
+        serverDown = true;
+        submit(3);
+
+        for (int i = 0; i < 20; i++) {
+            sender.flush();
+        }
+
+        assertThat(calls).hasValue(20);
+        assertThat(sender.getQuarantinedHits()).isZero();
+        assertThat(Files.readAllLines(spillFile())).hasSize(3).allMatch(line -> line.startsWith("0\t"));
+
+        serverDown = false;
+        sender.flush();
+
+        assertThat(delivered).containsExactlyInAnyOrder("/events/1", "/events/2", "/events/3");
+        assertThat(spillFile()).doesNotExist();
+    }
+
+    @Test
+    void replayBacksOffWhileSendsFail() {
+        create(HitOverflowPolicy.SPILL, 10, 60_000);
+        serverDown = true;
+        submit(2);
+        sender.flush();
+
+        sender.flush();
+        sender.flush();
+
+        assertThat(calls).hasValue(1);
+        assertThat(sender.getFailedBatches()).isEqualTo(1);
+    }
+
+    @Test
+    void replaysSpillAfterRecovery() {
+        create(HitOverflowPolicy.SPILL, 10, 60_000);
+        serverDown = true;
+        submit(2);
+        sender.flush();
+        serverDown = false;
+
+        submit(1);
+        sender.flush();
+        assertThat(delivered).containsExactly("/events/1");
+
+        sender.flush();
+
+        assertThat(delivered).containsExactlyInAnyOrder("/events/1", "/events/1", "/events/2");
+        assertThat(sender.getSentHits()).isEqualTo(3);
+        assertThat(spillFile()).doesNotExist();
+    }
+
+    @Test
+    void quarantinesPoisonHitsAfterMaxAttempts() throws IOException {
+        HitSenderProperties properties = create(HitOverflowPolicy.SPILL, 10, 0);
+        submit(2);
+        sender.submit(hit(POISON));
+
+        for (int i = 0; i < properties.getMaxReplayAttempts(); i++) {
+            assertThat(sender.getQuarantinedHits()).isZero();
+            sender.flush();
+        }
+
+        assertThat(delivered).containsExactly("/events/1", "/events/2");
+        assertThat(sender.getQuarantinedHits()).isEqualTo(1);
+        assertThat(Files.readAllLines(dir.resolve("hits.quarantine"))).singleElement().satisfies(line -> {
+            assertThat(line).startsWith(properties.getMaxReplayAttempts() + "\t");
+            assertThat(line).endsWith(POISON);
+        });
+        assertThat(spillFile()).doesNotExist();
+    }
+
+    private HitSenderProperties create(HitOverflowPolicy policy, int capacity, long maxReplayBackoffMs) {
+        HitSenderProperties properties = new HitSenderProperties();
+        properties.setOverflowPolicy(policy);
+        properties.setQueueCapacity(capacity);
+        properties.setBatchSize(100);
+        properties.setFlushIntervalMs(60_000);
+        properties.setMaxReplayBackoffMs(maxReplayBackoffMs);
+        properties.setMaxReplayAttempts(3);
+        properties.setBlockTimeoutMs(20);
+        properties.setSpillFile(dir.resolve("hits.spill").toString());
+        properties.setQuarantineFile(dir.resolve("hits.quarantine").toString());
+        sender = new AsyncHitSender(properties, this::send);
+        return properties;
+    }
+
+    private void send(List<NewHitDto> hits) {
+        calls.incrementAndGet();
+        if (serverDown) {
+            throw new ResourceAccessException("Connection refused");
+        }
+        if (hits.stream().anyMatch(hit -> POISON.equals(hit.getUri()))) {
+            throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+        }
+        delivered.addAll(hits.stream().map(NewHitDto::getUri).collect(Collectors.toList()));
+    }
+
+    private void submit(int hits) {
+        for (int i = 1; i <= hits; i++) {
+            sender.submit(hit("/events/" + i));
+        }
+    }
+
+    private NewHitDto hit(String uri) {
+        return NewHitDto.builder()
+                .app("ewm-service")
+                .ip("10.0.0.1")
+                .uri(uri)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private Path spillFile() {
+        return dir.resolve("hits.spill");
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+    private static final int THRESHOLD = 3;
+    private static final long OPEN_MS = 1_000;
+    private static final int THREADS = 32;
+
+    private long now = 1_000_000;
+
+    private final CircuitBreaker breaker = new CircuitBreaker(THRESHOLD, OPEN_MS, () -> now);
+
+    @Test
+    void opensAfterFailureThreshold() {
+        for (int i = 1; i < THRESHOLD; i++) {
+            breaker.onFailure();
+            assertThat(breaker.isOpen()).isFalse();
+            assertThat(breaker.allowRequest()).isTrue();
+        }
+
+        breaker.onFailure();
+
+        assertThat(breaker.isOpen()).isTrue();
+        assertThat(breaker.allowRequest()).isFalse();
+    }
+
+    @Test
+    void successResetsFailureCount() {
+        for (int i = 1; i < THRESHOLD; i++) {
+            breaker.onFailure();
+        }
+        breaker.onSuccess();
+        for (int i = 1; i < THRESHOLD; i++) {
+            breaker.onFailure();
+        }
+
+        assertThat(breaker.isOpen()).isFalse();
+    }
+
+    @Test
+    void failsFastWhileOpen() {
+        open();
+
+        now += OPEN_MS - 1;
+
+        assertThat(breaker.allowRequest()).isFalse();
+    }
+
+    @Test
+    void allowsSingleProbeAfterOpenPeriod() {
+        open();
+        now += OPEN_MS;
+
+        assertThat(breaker.allowRequest()).isTrue();
+        assertThat(breaker.allowRequest()).isFalse();
+
+        breaker.onSuccess();
+
+        assertThat(breaker.isOpen()).isFalse();
+        assertThat(breaker.allowRequest()).isTrue();
+    }
+
+    @Test
+    void allowsSingleProbeAcrossThreads() throws Exception {
+        open();
+        now += OPEN_MS;
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return breaker.allowRequest();
+                }));
+            }
+            start.countDown();
+            int probes = 0;
+            for (Future<Boolean> result : results) {
+                probes += result.get() ? 1 : 0;
+            }
+
+            assertThat(probes).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedProbeReopensAndReleasesProbe() {
+        open();
+        now += OPEN_MS;
+        assertThat(breaker.allowRequest()).isTrue();
+
+        breaker.onFailure();
+
+        assertThat(breaker.isOpen()).isTrue();
+        assertThat(breaker.allowRequest()).isFalse();
+        now += OPEN_MS;
+        assertThat(breaker.allowRequest()).isTrue();
+    }
+
+    private void open() {
+        for (int i = 0; i < THRESHOLD; i++) {
+            breaker.onFailure();
+        }
+        assertThat(breaker.isOpen()).isTrue();
+    }
+}
@@ -0,0 +1,148 @@
+package ru.practicum;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.ExpectedCount.times;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withException;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class StatsClientTest {
+    private static final String URL = "http://stats";
+    private static final String VIEWS = URL + "/stats/views?uris=%2Fevents%2F1&unique=true";
+    private static final int THRESHOLD = 3;
+
+    private StatsClient client;
+
+    private MockRestServiceServer server;
+
+    @AfterEach
+    void close() throws IOException {
+        client.destroy();
+    }
+
+    @Test
+    void serverErrorsOpenBreakerAfterThreshold() {
+        create(0, 60_000);
+        server.expect(times(THRESHOLD), requestTo(VIEWS)).andRespond(withServerError());
+
+        for (int i = 0; i < THRESHOLD; i++) {
+            assertThat(client.isAvailable()).isTrue();
+            assertThatThrownBy(() -> client.getStatsUnique("/events/1"))
+                    .isInstanceOf(StatsUnavailableException.class);
+        }
+
+        assertThat(client.isAvailable()).isFalse();
+        server.verify();
+    }
+
+    @Test
+    void failsFastWhileOpen() {
+        create(0, 60_000);
+        server.expect(times(THRESHOLD), requestTo(VIEWS)).andRespond(withException(new IOException("refused")));
+        for (int i = 0; i < THRESHOLD; i++) {
+            assertThatThrownBy(() -> client.getStatsUnique("/events/1"))
+                    .isInstanceOf(StatsUnavailableException.class);
+        }
+
+        assertThatThrownBy(() -> client.getStatsUnique("/events/1"))
+                .isInstanceOf(StatsUnavailableException.class)
+                .hasNoCause();
+        server.verify();
+    }
+
+    @Test
+    void retriesCountAsOneFailure() {
+        create(THRESHOLD - 1, 60_000);
+        server.expect(times(THRESHOLD), requestTo(VIEWS)).andRespond(withServerError());
+
+        assertThatThrownBy(() -> client.getStatsUnique("/events/1"))
+                .isInstanceOf(StatsUnavailableException.class);
+
+        assertThat(client.isAvailable()).isTrue();
+        server.verify();
+    }
+
+    @Test
+    void clientErrorsDoNotTripBreaker() {
+        create(0, 60_000);
+        server.expect(times(THRESHOLD + 1), requestTo(VIEWS)).andRespond(withStatus(HttpStatus.BAD_REQUEST));
+
+        for (int i = 0; i <= THRESHOLD; i++) {
+            assertThatThrownBy(() -> client.getStatsUnique("/events/1"))
+                    .isInstanceOf(HttpClientErrorException.class);
+        }
+
+        assertThat(client.isAvailable()).isTrue();
+        server.verify();
+    }
+
+    @Test
+    void probeIsReleasedWhenItThrows() {
+        create(0, 0);
+        server.expect(times(THRESHOLD), requestTo(VIEWS)).andRespond(withServerError());
+        server.expect(once(), requestTo(VIEWS)).andRespond(withSuccess("not a number", MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo(VIEWS)).andRespond(withSuccess("5", MediaType.APPLICATION_JSON));
+        for (int i = 0; i < THRESHOLD; i++) {
+            assertThatThrownBy(() -> client.getStatsUnique("/events/1"))
+                    .isInstanceOf(StatsUnavailableException.class);
+        }
+
+        assertThatThrownBy(() -> client.getStatsUnique("/events/1"))
+                .isInstanceOf(RestClientException.class)
+                .isNotInstanceOf(StatsUnavailableException.class);
+
+        assertThat(client.getStatsUnique("/events/1").getBody()).isEqualTo(5L);
+        assertThat(client.isAvailable()).isTrue();
+        server.verify();
+    }
+
+    @Test
+    void createHitIsNotRetriedAndTripsBreaker() {
+        create(2, 60_000);
+        server.expect(times(THRESHOLD), requestTo(URL + "/hit"))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withServerError());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/events/1");
+
+        for (int i = 0; i < THRESHOLD; i++) {
+            assertThatThrownBy(() -> client.createHit(request))
+                    .isInstanceOf(StatsUnavailableException.class);
+        }
+
+        assertThat(client.isAvailable()).isFalse();
+        assertThatThrownBy(() -> client.createHit(request))
+                .isInstanceOf(StatsUnavailableException.class)
+                .hasNoCause();
+        server.verify();
+    }
+
+    private void create(int retries, long breakerOpenMs) {
+        StatsHttpProperties properties = new StatsHttpProperties();
+        properties.setRetries(retries);
+        properties.setRetryBackoffMs(1);
+        properties.setBreakerFailureThreshold(THRESHOLD);
+        properties.setBreakerOpenMs(breakerOpenMs);
+        client = new StatsClient(URL, "ewm-service", new RestTemplateBuilder(), new HitSenderProperties(),
+                properties, new SimpleMeterRegistry());
+        server = MockRestServiceServer.bindTo(client.rest).build();
+    }
+}
@@ -1,9 +1,13 @@
 package ru.practicum;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
 
 @Getter
 @Builder
@@ -11,8 +15,28 @@ import javax.validation.constraints.NotBlank;
 @NoArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class NewHitDto {
+    private static final String IPV4 = "((25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]?\\d)\\.){3}(25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]?\\d)";
+    private static final String H = "[0-9a-fA-F]{1,4}";
+    private static final String IPV6 = "(" + H + ":){7}" + H
+            + "|(" + H + ":){1,7}:"
+            + "|(" + H + ":){1,6}:" + H
+            + "|(" + H + ":){1,5}(:" + H + "){1,2}"
+            + "|(" + H + ":){1,4}(:" + H + "){1,3}"
+            + "|(" + H + ":){1,3}(:" + H + "){1,4}"
+            + "|(" + H + ":){1,2}(:" + H + "){1,5}"
+            + "|" + H + ":(:" + H + "){1,6}"
+            + "|:((:" + H + "){1,7}|:)"
+            + "|::([fF]{4}(:0{1,4})?:)?" + IPV4
+            + "|(" + H + ":){1,4}:" + IPV4;
+
+    @Size(max = 255)
+    String app;
     @NotBlank
+    @Size(max = 512)
     String uri;
     @NotBlank
+    @Pattern(regexp = IPV4 + "|" + IPV6, message = "IP-адрес должен быть в формате IPv4 или IPv6")
     String ip;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    LocalDateTime timestamp;
 }
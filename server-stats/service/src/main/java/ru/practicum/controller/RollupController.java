@@ -0,0 +1,32 @@
+package ru.practicum.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.model.RollupMismatch;
+import ru.practicum.service.RollupService;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class RollupController {
+    private final RollupService service;
+
+    @PostMapping("/admin/rollup/backfill")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void backfill(@RequestParam("start") String startStr,
+                         @RequestParam("end") String endStr) {
+        log.info("Пересчёт агрегатов статистики: start {}, end {}", startStr, endStr);
+        service.backfill(startStr, endStr);
+    }
+
+    @GetMapping("/admin/rollup/check")
+    public List<RollupMismatch> check(@RequestParam("start") String startStr,
+                                      @RequestParam("end") String endStr) {
+        log.info("Проверка агрегатов статистики: start {}, end {}", startStr, endStr);
+        return service.check(startStr, endStr);
+    }
+}
@@ -1,23 +1,36 @@
 package ru.practicum.controller;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.HitDto;
 import ru.practicum.NewHitDto;
 import ru.practicum.StatsDto;
 import ru.practicum.service.StatService;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @RestController
 @RequiredArgsConstructor
+@Validated
 public class StatController {
+    private static final String NDJSON = "application/x-ndjson";
+
     private final StatService service;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/hit")
     @ResponseStatus(value = HttpStatus.CREATED)
@@ -26,6 +39,13 @@ public class StatController {
         return service.create(dto);
     }
 
+    @PostMapping("/hit/batch")
+    @ResponseStatus(value = HttpStatus.CREATED)
+    public Long createStats(@RequestBody List<@Valid NewHitDto> dtos) {
+        log.info("Обновление статистики: сохранение {} просмотров", dtos.size());
+        return service.createAll(dtos);
+    }
+
     @GetMapping("/stats")
     public List<StatsDto> getStats(@RequestParam("start") String startStr,
                                    @RequestParam("end") String endStr,
@@ -36,10 +56,38 @@ public class StatController {
         return service.getStatus(startStr, endStr, uris, unique);
     }
 
+    @GetMapping("/stats/export")
+    public void exportStats(@RequestParam("start") String startStr,
+                            @RequestParam("end") String endStr,
+                            @RequestParam(required = false) List<String> uris,
+                            @RequestParam(defaultValue = "false", required = false) Boolean unique,
+                            HttpServletResponse response) throws IOException {
+        log.info("Выгрузка статистики с параметрами: start {}, end {}, uris {}, unique {}",
+                startStr, endStr, uris, unique);
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        OutputStream out = new BufferedOutputStream(response.getOutputStream());
+        service.exportStats(startStr, endStr, uris, unique, stats -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(stats));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.flush();
+    }
+
     @GetMapping("/stats/views")
     public Long getStats(@RequestParam String uris) {
         log.info("Получение статистики для event: uris {}",
                 uris);
         return service.getViews(uris);
     }
+
+    @GetMapping("/stats/views/batch")
+    public Map<String, Long> getViews(@RequestParam List<String> uris) {
+        log.info("Получение статистики для events: uris {}", uris);
+        return service.getViews(uris);
+    }
 }
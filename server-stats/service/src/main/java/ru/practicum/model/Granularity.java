@@ -0,0 +1,33 @@
+package ru.practicum.model;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum Granularity {
+    MINUTE(ChronoUnit.MINUTES, "minute"), HOUR(ChronoUnit.HOURS, "hour"), DAY(ChronoUnit.DAYS, "day");
+
+    private final ChronoUnit unit;
+    private final String field;
+
+    Granularity(ChronoUnit unit, String field) {
+        this.unit = unit;
+        this.field = field;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public LocalDateTime floor(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    public LocalDateTime ceil(LocalDateTime time) {
+        LocalDateTime floor = floor(time);
+        return floor.equals(time) ? time : floor.plus(1, unit);
+    }
+
+    public Granularity source() {
+        return this == DAY ? HOUR : this == HOUR ? MINUTE : null;
+    }
+}
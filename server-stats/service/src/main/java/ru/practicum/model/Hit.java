@@ -2,6 +2,7 @@ package ru.practicum.model;
 
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.ColumnTransformer;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -19,8 +20,13 @@ public class Hit {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     Long id;
-    String app;
-    String uri;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "app_id")
+    HitApp app;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "uri_id")
+    HitUri uri;
+    @ColumnTransformer(read = "host(ip)", write = "?::inet")
     String ip;
     @Column(name = "time")
     LocalDateTime timestamp;
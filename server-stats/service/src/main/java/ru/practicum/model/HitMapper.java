@@ -9,21 +9,21 @@ import java.time.LocalDateTime;
 
 @Component
 public class HitMapper {
-    public Hit toHit(NewHitDto hitDto) {
+    public Hit toHit(NewHitDto hitDto, HitApp app, HitUri uri) {
         return Hit.builder()
                 .ip(hitDto.getIp())
-                .app("ewm-service")
-                .uri(hitDto.getUri())
-                .timestamp(LocalDateTime.now())
+                .app(app)
+                .uri(uri)
+                .timestamp(hitDto.getTimestamp() != null ? hitDto.getTimestamp() : LocalDateTime.now())
                 .build();
     }
 
     public HitDto toHitDto(Hit hit) {
         return HitDto.builder()
-                .app(hit.getApp())
+                .app(hit.getApp().getName())
                 .ip(hit.getIp())
                 .timestamp(hit.getTimestamp())
-                .uri(hit.getUri())
+                .uri(hit.getUri().getUri())
                 .build();
     }
 
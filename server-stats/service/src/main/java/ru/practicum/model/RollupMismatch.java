@@ -0,0 +1,16 @@
+package ru.practicum.model;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class RollupMismatch {
+    String app;
+    String uri;
+    long rawHits;
+    long rolledUpHits;
+}
@@ -0,0 +1,5 @@
+package ru.practicum.model;
+
+public enum UniqueMode {
+    EXACT, APPROXIMATE
+}
@@ -0,0 +1,52 @@
+package ru.practicum.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class HitDictionaryRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public int findOrCreateApp(String name) {
+        return findOrCreate("select id from apps where name = ?",
+                "insert into apps (name) values (?) on conflict (name) do nothing returning id",
+                Integer.class, name);
+    }
+
+    public long findOrCreateUri(String uri) {
+        return findOrCreate("select id from uris where uri = ?",
+                "insert into uris (uri) values (?) on conflict (uri) do nothing returning id",
+                Long.class, uri);
+    }
+
+    public Map<String, Long> findUriIds(Collection<String> uris) {
+        Map<String, Long> ids = new HashMap<>();
+        namedJdbcTemplate.query("select id, uri from uris where uri in (:uris)",
+                new MapSqlParameterSource("uris", uris), rs -> {
+                    ids.put(rs.getString("uri"), rs.getLong("id"));
+                });
+        return ids;
+    }
+
+    private <T> T findOrCreate(String select, String insert, Class<T> type, String value) {
+        List<T> ids = jdbcTemplate.queryForList(select, type, value);
+        if (ids.isEmpty()) {
+            ids = jdbcTemplate.queryForList(insert, type, value);
+        }
+        if (ids.isEmpty()) {
+            // a concurrent transaction inserted the same value; the new statement sees its commit
+            ids = jdbcTemplate.queryForList(select, type, value);
+        }
+        return ids.get(0);
+    }
+}
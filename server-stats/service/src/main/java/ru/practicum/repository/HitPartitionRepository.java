@@ -0,0 +1,59 @@
+package ru.practicum.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class HitPartitionRepository {
+    private static final DateTimeFormatter NAME_FORMATTER = DateTimeFormatter.ofPattern("'hits_y'yyyy'm'MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<String> findPartitions() {
+        return jdbcTemplate.queryForList("select child.relname from pg_inherits " +
+                "join pg_class parent on parent.oid = pg_inherits.inhparent " +
+                "join pg_class child on child.oid = pg_inherits.inhrelid " +
+                "where parent.relname = 'hits' order by child.relname", String.class);
+    }
+
+    public boolean partitionExists(LocalDate month) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("select to_regclass(?) is not null",
+                Boolean.class, partitionName(month)));
+    }
+
+    /**
+     * Creates the month partition and moves rows of that month out of hits_default; must run in one transaction.
+     */
+    public int createMonthPartition(LocalDate month) {
+        String name = partitionName(month);
+        LocalDate end = month.plusMonths(1);
+        jdbcTemplate.execute("alter table hits detach partition hits_default");
+        jdbcTemplate.execute(String.format("create table %s partition of hits " +
+                "for values from ('%s') to ('%s')", name, month, end));
+        int moved = jdbcTemplate.update(String.format("insert into %s (id, time, ip, app_id, uri_id) " +
+                "select id, time, ip, app_id, uri_id from hits_default where time >= ? and time < ?", name),
+                month.atStartOfDay(), end.atStartOfDay());
+        jdbcTemplate.update("delete from hits_default where time >= ? and time < ?",
+                month.atStartOfDay(), end.atStartOfDay());
+        jdbcTemplate.execute("alter table hits attach partition hits_default default");
+        return moved;
+    }
+
+    public void dropPartition(String name) {
+        jdbcTemplate.execute(String.format("drop table if exists %s", name));
+    }
+
+    public String partitionName(LocalDate month) {
+        return month.format(NAME_FORMATTER);
+    }
+
+    public LocalDate parseMonth(String partitionName) {
+        return LocalDate.parse(partitionName + "01", DateTimeFormatter.ofPattern("'hits_y'yyyy'm'MMdd"));
+    }
+}
@@ -0,0 +1,179 @@
+package ru.practicum.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.model.Granularity;
+import ru.practicum.model.HitIdWatermark;
+import ru.practicum.model.HyperLogLog;
+import ru.practicum.model.RollupKey;
+import ru.practicum.model.Stats;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+@Repository
+@RequiredArgsConstructor
+public class RollupRepository {
+    private static final RowMapper<Stats> STATS_MAPPER = (rs, rowNum) ->
+            new Stats(rs.getString("app"), rs.getString("uri"), rs.getLong("hits"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Map<Granularity, LocalDateTime> findWatermarks() {
+        Map<Granularity, LocalDateTime> watermarks = new EnumMap<>(Granularity.class);
+        jdbcTemplate.query("select granularity, rolled_up_to from rollup_watermarks", rs -> {
+            watermarks.put(Granularity.valueOf(rs.getString("granularity")),
+                    rs.getTimestamp("rolled_up_to").toLocalDateTime());
+        });
+        return watermarks;
+    }
+
+    public void saveWatermark(Granularity granularity, LocalDateTime rolledUpTo) {
+        jdbcTemplate.update("insert into rollup_watermarks (granularity, rolled_up_to) values (:granularity, :to) " +
+                        "on conflict (granularity) do update set rolled_up_to = excluded.rolled_up_to",
+                new MapSqlParameterSource()
+                        .addValue("granularity", granularity.name())
+                        .addValue("to", rolledUpTo));
+    }
+
+    public HitIdWatermark findHitIdWatermark() {
+        return jdbcTemplate.getJdbcTemplate().queryForObject("select scan_from, scanned_to from rollup_hit_watermark",
+                (rs, rowNum) -> new HitIdWatermark(rs.getLong("scan_from"), rs.getLong("scanned_to")));
+    }
+
+    public void saveHitIdWatermark(HitIdWatermark watermark) {
+        jdbcTemplate.update("update rollup_hit_watermark set scan_from = :from, scanned_to = :to",
+                new MapSqlParameterSource()
+                        .addValue("from", watermark.getScanFrom())
+                        .addValue("to", watermark.getScannedTo()));
+    }
+
+    public long findMaxHitId() {
+        Long id = jdbcTemplate.getJdbcTemplate().queryForObject("select max(id) from hits", Long.class);
+        return id != null ? id : 0;
+    }
+
+    public List<LocalDateTime> findLateHours(long fromId, long toId, LocalDateTime before) {
+        return jdbcTemplate.query("select distinct date_trunc('hour', time) as bucket from hits " +
+                        "where id > :from and id <= :to and time < :before order by bucket",
+                new MapSqlParameterSource()
+                        .addValue("from", fromId)
+                        .addValue("to", toId)
+                        .addValue("before", before),
+                (rs, rowNum) -> rs.getTimestamp("bucket").toLocalDateTime());
+    }
+
+    public Optional<LocalDateTime> findFirstHitTime() {
+        Timestamp first = jdbcTemplate.getJdbcTemplate().queryForObject("select min(time) from hits", Timestamp.class);
+        return Optional.ofNullable(first).map(Timestamp::toLocalDateTime);
+    }
+
+    public int rollupHits(LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.update("insert into hit_rollups (granularity, bucket, app, uri, hits) " +
+                        "select :granularity, buckets.bucket, apps.name, uris.uri, buckets.hits from (" +
+                        "select date_trunc('minute', time) as bucket, app_id, uri_id, count(*) as hits from hits " +
+                        "where time >= :from and time < :to " +
+                        "group by 1, 2, 3) buckets " +
+                        "join apps on apps.id = buckets.app_id join uris on uris.id = buckets.uri_id " +
+                        "on conflict (granularity, bucket, app, uri) do update set hits = excluded.hits",
+                new MapSqlParameterSource()
+                        .addValue("granularity", Granularity.MINUTE.name())
+                        .addValue("from", from)
+                        .addValue("to", to));
+    }
+
+    public int rollupBuckets(Granularity granularity, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.update("insert into hit_rollups (granularity, bucket, app, uri, hits) " +
+                        "select :granularity, date_trunc(:field, bucket), app, uri, sum(hits) from hit_rollups " +
+                        "where granularity = :source and bucket >= :from and bucket < :to " +
+                        "group by 2, 3, 4 " +
+                        "on conflict (granularity, bucket, app, uri) do update set hits = excluded.hits",
+                new MapSqlParameterSource()
+                        .addValue("granularity", granularity.name())
+                        .addValue("field", granularity.getField())
+                        .addValue("source", granularity.source().name())
+                        .addValue("from", from)
+                        .addValue("to", to));
+    }
+
+    public List<Stats> findRolledUp(Granularity granularity, LocalDateTime from, LocalDateTime to, List<String> uris) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("granularity", granularity.name())
+                .addValue("from", from)
+                .addValue("to", to)
+                .addValue("uris", uris);
+        return jdbcTemplate.query("select app, uri, sum(hits) as hits from hit_rollups " +
+                "where granularity = :granularity and bucket >= :from and bucket < :to " +
+                (uris != null ? "and uri in (:uris) " : "") +
+                "group by app, uri", parameters, STATS_MAPPER);
+    }
+
+    public void findDistinctIps(Granularity granularity, LocalDateTime from, LocalDateTime to, boolean inclusive,
+                                List<String> uris, BiConsumer<RollupKey, String> consumer) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("field", granularity != null ? granularity.getField() : null)
+                .addValue("from", from)
+                .addValue("to", to)
+                .addValue("uris", uris);
+        jdbcTemplate.query("select ips.bucket, apps.name as app, uris.uri, host(ips.ip) as ip from (" +
+                "select " + (granularity != null ? "date_trunc(:field, time)" : "null") + " as bucket, " +
+                "app_id, uri_id, ip from hits " +
+                "where time >= :from and time " + (inclusive ? "<=" : "<") + " :to and ip is not null " +
+                (uris != null ? "and uri_id in (select id from uris where uri in (:uris)) " : "") +
+                "group by 1, 2, 3, 4) ips " +
+                "join apps on apps.id = ips.app_id join uris on uris.id = ips.uri_id", parameters, rs -> {
+            Timestamp bucket = rs.getTimestamp("bucket");
+            consumer.accept(new RollupKey(bucket != null ? bucket.toLocalDateTime() : null,
+                    rs.getString("app"), rs.getString("uri")), rs.getString("ip"));
+        });
+    }
+
+    public void findSketches(Granularity granularity, LocalDateTime from, LocalDateTime to, List<String> uris,
+                             BiConsumer<RollupKey, HyperLogLog> consumer) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("granularity", granularity.name())
+                .addValue("from", from)
+                .addValue("to", to)
+                .addValue("uris", uris);
+        jdbcTemplate.query("select bucket, app, uri, ips from hit_rollups " +
+                "where granularity = :granularity and bucket >= :from and bucket < :to and ips is not null " +
+                (uris != null ? "and uri in (:uris) " : ""), parameters, rs -> {
+            consumer.accept(new RollupKey(rs.getTimestamp("bucket").toLocalDateTime(),
+                    rs.getString("app"), rs.getString("uri")), HyperLogLog.fromBytes(rs.getBytes("ips")));
+        });
+    }
+
+    public void saveSketches(Granularity granularity, Map<RollupKey, HyperLogLog> sketches) {
+        jdbcTemplate.batchUpdate("update hit_rollups set ips = :ips " +
+                        "where granularity = :granularity and bucket = :bucket and app = :app and uri = :uri",
+                sketches.entrySet().stream()
+                        .map(entry -> new MapSqlParameterSource()
+                                .addValue("ips", entry.getValue().toBytes())
+                                .addValue("granularity", granularity.name())
+                                .addValue("bucket", entry.getKey().getBucket())
+                                .addValue("app", entry.getKey().getApp())
+                                .addValue("uri", entry.getKey().getUri()))
+                        .toArray(MapSqlParameterSource[]::new));
+    }
+
+    public List<Stats> findRaw(LocalDateTime from, LocalDateTime to, boolean inclusive, List<String> uris) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("from", from)
+                .addValue("to", to)
+                .addValue("uris", uris);
+        return jdbcTemplate.query("select apps.name as app, uris.uri, counts.hits from (" +
+                "select app_id, uri_id, count(*) as hits from hits " +
+                "where time >= :from and time " + (inclusive ? "<=" : "<") + " :to " +
+                (uris != null ? "and uri_id in (select id from uris where uri in (:uris)) " : "") +
+                "group by app_id, uri_id) counts " +
+                "join apps on apps.id = counts.app_id join uris on uris.id = counts.uri_id", parameters, STATS_MAPPER);
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.repository;
+
+import ru.practicum.model.Hit;
+import ru.practicum.model.Stats;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface StatCustomRepository {
+    int batchInsert(List<Hit> hits);
+
+    void findIps(long uriId, LocalDateTime since, Consumer<String> consumer);
+
+    List<Long> findPopularUriIds(LocalDateTime since, int limit);
+
+    void streamStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique, Consumer<Stats> consumer);
+}
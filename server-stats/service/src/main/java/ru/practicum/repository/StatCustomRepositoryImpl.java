@@ -0,0 +1,82 @@
+package ru.practicum.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.model.Hit;
+import ru.practicum.model.Stats;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Repository
+@RequiredArgsConstructor
+public class StatCustomRepositoryImpl implements StatCustomRepository {
+    private static final String INSERT_HIT = "insert into hits (app_id, uri_id, ip, time) values (?, ?, ?::inet, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Value("${stats.hits.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public int batchInsert(List<Hit> hits) {
+        if (hits.isEmpty()) {
+            return 0;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_HIT, hits, batchSize, (ps, hit) -> {
+            ps.setInt(1, hit.getApp().getId());
+            ps.setLong(2, hit.getUri().getId());
+            ps.setString(3, hit.getIp());
+            ps.setTimestamp(4, Timestamp.valueOf(hit.getTimestamp()));
+        });
+        return Arrays.stream(counts)
+                .flatMapToInt(Arrays::stream)
+                .map(count -> count < 0 ? 1 : count)
+                .sum();
+    }
+
+    @Override
+    public void findIps(long uriId, LocalDateTime since, Consumer<String> consumer) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("uriId", uriId);
+        String sql = "select distinct host(ip) as ip from hits where uri_id = :uriId and ip is not null";
+        if (since != null) {
+            sql += " and time >= :since";
+            parameters.addValue("since", Timestamp.valueOf(since));
+        }
+        namedJdbcTemplate.query(sql, parameters, rs -> {
+            consumer.accept(rs.getString("ip"));
+        });
+    }
+
+    @Override
+    public List<Long> findPopularUriIds(LocalDateTime since, int limit) {
+        return jdbcTemplate.queryForList("select uri_id from hits where time >= ? group by uri_id " +
+                "order by count(*) desc limit ?", Long.class, Timestamp.valueOf(since), limit);
+    }
+
+    @Override
+    public void streamStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique,
+                            Consumer<Stats> consumer) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("start", start)
+                .addValue("end", end)
+                .addValue("uris", uris);
+        namedJdbcTemplate.query("select apps.name as app, uris.uri, counts.hits from (" +
+                "select app_id, uri_id, " + (unique ? "count(distinct ip)" : "count(*)") + " as hits from hits " +
+                "where time >= :start and time <= :end " +
+                (uris != null ? "and uri_id in (select id from uris where uri in (:uris)) " : "") +
+                "group by app_id, uri_id) counts " +
+                "join apps on apps.id = counts.app_id join uris on uris.id = counts.uri_id " +
+                "order by counts.hits desc", parameters, rs -> {
+            consumer.accept(new Stats(rs.getString("app"), rs.getString("uri"), rs.getLong("hits")));
+        });
+    }
+}
@@ -8,31 +8,42 @@ import ru.practicum.model.Stats;
 import java.time.LocalDateTime;
 import java.util.List;
 
-public interface StatRepository extends JpaRepository<Hit, Long> {
-    @Query("select new ru.practicum.model.Stats(app, uri, count(uri) as hits) from Hit " +
-            "where uri in (?1) " +
-            "and timestamp >= ?2 and timestamp <= ?3 " +
-            "group by app, uri order by hits desc")
+public interface StatRepository extends StatCustomRepository, JpaRepository<Hit, Long> {
+    @Query("select new ru.practicum.model.Stats(a.name, u.uri, count(h.id) as hits) " +
+            "from Hit h join h.app a join h.uri u " +
+            "where u.uri in (?1) " +
+            "and h.timestamp >= ?2 and h.timestamp <= ?3 " +
+            "group by a.id, u.id order by hits desc")
     List<Stats> findStatsWithoutUnique(List<String> uris, LocalDateTime start, LocalDateTime end);
 
-    @Query("select new ru.practicum.model.Stats(app, uri, count(distinct uri) as hits) from Hit " +
-            "where uri in (?1) " +
-            "and timestamp >= ?2 and timestamp <= ?3 " +
-            "group by app, uri order by hits")
+    @Query("select new ru.practicum.model.Stats(a.name, u.uri, count(distinct h.ip) as hits) " +
+            "from Hit h join h.app a join h.uri u " +
+            "where u.uri in (?1) " +
+            "and h.timestamp >= ?2 and h.timestamp <= ?3 " +
+            "group by a.id, u.id order by hits")
     List<Stats> findStats(List<String> uris, LocalDateTime start, LocalDateTime end);
 
-    @Query("select new ru.practicum.model.Stats(app, uri, count(uri) as hits) from Hit " +
-            "where timestamp >= ?1 and timestamp <= ?2 " +
-            "group by app, uri order by hits")
+    @Query("select new ru.practicum.model.Stats(a.name, u.uri, count(h.id) as hits) " +
+            "from Hit h join h.app a join h.uri u " +
+            "where h.timestamp >= ?1 and h.timestamp <= ?2 " +
+            "group by a.id, u.id order by hits")
     List<Stats> findStatsWithoutUrisAndUnique(LocalDateTime start, LocalDateTime end);
 
-    @Query("select new ru.practicum.model.Stats(app, uri, count(distinct uri) as hits) from Hit " +
-            "where timestamp >= ?1 and timestamp <= ?2 " +
-            "group by app, uri order by hits desc")
+    @Query("select new ru.practicum.model.Stats(a.name, u.uri, count(distinct h.ip) as hits) " +
+            "from Hit h join h.app a join h.uri u " +
+            "where h.timestamp >= ?1 and h.timestamp <= ?2 " +
+            "group by a.id, u.id order by hits desc")
     List<Stats> findStatsWithoutUris(LocalDateTime start, LocalDateTime end);
 
-    @Query("select new ru.practicum.model.Stats(app, uri, count(distinct uri) as hits) from Hit " +
-            "where uri = ?1 " +
-            "group by app, uri order by hits")
+    @Query("select new ru.practicum.model.Stats(a.name, u.uri, count(distinct h.ip) as hits) " +
+            "from Hit h join h.app a join h.uri u " +
+            "where u.uri = ?1 " +
+            "group by a.id, u.id order by hits")
     Stats findStatsUrisAndUnique(String uris);
+
+    @Query("select new ru.practicum.model.Stats(a.name, u.uri, count(distinct h.ip) as hits) " +
+            "from Hit h join h.app a join h.uri u " +
+            "where u.uri in (?1) " +
+            "group by a.id, u.id")
+    List<Stats> findViews(List<String> uris);
 }
@@ -0,0 +1,102 @@
+package ru.practicum.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.model.HitApp;
+import ru.practicum.model.HitUri;
+import ru.practicum.repository.HitDictionaryRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@RequiredArgsConstructor
+public class HitDictionary {
+    private static final String DEFAULT_APP = "ewm-service";
+
+    private final HitDictionaryRepository repository;
+
+    private final Map<String, HitApp> apps = new ConcurrentHashMap<>();
+    private Cache<String, HitUri> uris;
+
+    @Value("${stats.dictionary.max-uris:100000}")
+    private int maxUris;
+
+    @PostConstruct
+    public void init() {
+        uris = Caffeine.newBuilder()
+                .maximumSize(maxUris)
+                .build();
+    }
+
+    public HitApp app(String name) {
+        String key = name != null && !name.isBlank() ? name : DEFAULT_APP;
+        HitApp cached = apps.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        HitApp app = new HitApp(repository.findOrCreateApp(key), key);
+        afterCommit(() -> apps.putIfAbsent(key, app));
+        return app;
+    }
+
+    public HitUri uri(String uri) {
+        HitUri cached = uris.getIfPresent(uri);
+        if (cached != null) {
+            return cached;
+        }
+        HitUri hitUri = new HitUri(repository.findOrCreateUri(uri), uri);
+        afterCommit(() -> uris.put(uri, hitUri));
+        return hitUri;
+    }
+
+    /**
+     * Looks up the ids of existing URIs without creating missing ones; URIs never hit are absent from the result.
+     */
+    public Map<String, Long> uriIds(Collection<String> uris) {
+        Map<String, Long> ids = new HashMap<>();
+        List<String> missed = new ArrayList<>();
+        for (String uri : uris) {
+            HitUri cached = this.uris.getIfPresent(uri);
+            if (cached != null) {
+                ids.put(uri, cached.getId());
+            } else {
+                missed.add(uri);
+            }
+        }
+        if (!missed.isEmpty()) {
+            repository.findUriIds(missed).forEach((uri, id) -> {
+                ids.put(uri, id);
+                this.uris.put(uri, new HitUri(id, uri));
+            });
+        }
+        return ids;
+    }
+
+    /**
+     * Ids created inside a transaction are cached only after it commits, otherwise a rollback
+     * would leave the cache pointing at dictionary rows that do not exist.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,5 @@
+package ru.practicum.service;
+
+public interface HitPartitionService {
+    void maintain();
+}
@@ -0,0 +1,92 @@
+package ru.practicum.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.model.Granularity;
+import ru.practicum.repository.HitPartitionRepository;
+import ru.practicum.repository.RollupRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HitPartitionServiceImpl implements HitPartitionService {
+    private final HitPartitionRepository repository;
+    private final RollupRepository rollupRepository;
+    private final RollupService rollupService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${stats.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${stats.partitions.retention-months:0}")
+    private int retentionMonths;
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${stats.partitions.cron:0 0 3 * * *}")
+    public void maintain() {
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        for (int i = 0; i <= monthsAhead; i++) {
+            LocalDate month = currentMonth.plusMonths(i);
+            try {
+                createPartition(month);
+            } catch (RuntimeException e) {
+                log.error("Не удалось создать партицию {}: {}", repository.partitionName(month), e.getMessage(), e);
+            }
+        }
+        if (retentionMonths > 0) {
+            try {
+                dropExpired(currentMonth.minusMonths(retentionMonths));
+            } catch (RuntimeException e) {
+                log.error("Не удалось удалить старые партиции: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void createPartition(LocalDate month) {
+        if (repository.partitionExists(month)) {
+            return;
+        }
+        Integer moved = transactionTemplate.execute(status -> repository.createMonthPartition(month));
+        log.info("Создана партиция {}, перенесено из hits_default {} просмотров", repository.partitionName(month), moved);
+    }
+
+    private void dropExpired(LocalDate keepFrom) {
+        LocalDateTime rolledUpTo = null;
+        if (rollupService.isEnabled()) {
+            rolledUpTo = rollupRepository.findWatermarks().get(Granularity.DAY);
+            if (rolledUpTo == null) {
+                log.info("Удаление старых партиций отложено: агрегаты по дням ещё не построены");
+                return;
+            }
+        }
+        for (String partition : repository.findPartitions()) {
+            LocalDate month;
+            try {
+                month = repository.parseMonth(partition);
+            } catch (DateTimeParseException e) {
+                continue;
+            }
+            LocalDate end = month.plusMonths(1);
+            if (end.isAfter(keepFrom)) {
+                continue;
+            }
+            if (rolledUpTo != null && end.atStartOfDay().isAfter(rolledUpTo)) {
+                log.info("Партиция {} не удалена: агрегаты построены только до {}", partition, rolledUpTo);
+                continue;
+            }
+            repository.dropPartition(partition);
+            log.info("Удалена партиция {}", partition);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.service;
+
+import ru.practicum.model.RollupMismatch;
+import ru.practicum.model.Stats;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RollupService {
+    boolean isEnabled();
+
+    boolean isApproximateUnique();
+
+    void rollup();
+
+    void backfill(String start, String end);
+
+    List<RollupMismatch> check(String start, String end);
+
+    List<Stats> getStats(LocalDateTime start, LocalDateTime end, List<String> uris);
+
+    List<Stats> getUniqueStats(LocalDateTime start, LocalDateTime end, List<String> uris);
+}
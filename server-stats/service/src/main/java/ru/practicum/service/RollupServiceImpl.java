@@ -0,0 +1,313 @@
+package ru.practicum.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.exception.ValidationException;
+import ru.practicum.model.*;
+import ru.practicum.repository.RollupRepository;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static ru.practicum.model.Granularity.*;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RollupServiceImpl implements RollupService, DisposableBean {
+    private static final List<Granularity> COARSEST_FIRST = List.of(DAY, HOUR, MINUTE);
+    private static final List<Granularity> WITH_SKETCHES = List.of(DAY, HOUR);
+
+    private final RollupRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+    private final ExecutorService backfillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stats-rollup-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${stats.rollup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${stats.rollup.lag-seconds:120}")
+    private long lagSeconds;
+
+    @Value("${stats.rollup.chunk-hours:24}")
+    private long chunkHours;
+
+    @Value("${stats.unique.mode:EXACT}")
+    private UniqueMode uniqueMode;
+
+    @Value("${stats.unique.precision:12}")
+    private int precision;
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public boolean isApproximateUnique() {
+        return enabled && uniqueMode == UniqueMode.APPROXIMATE;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${stats.rollup.interval-ms:60000}")
+    public void rollup() {
+        if (!enabled) {
+            return;
+        }
+        reaggregateLateHits();
+        advance(MINUTE, MINUTE.floor(LocalDateTime.now().minusSeconds(lagSeconds)));
+        for (Granularity granularity : List.of(HOUR, DAY)) {
+            LocalDateTime sourceWatermark = repository.findWatermarks().get(granularity.source());
+            if (sourceWatermark != null) {
+                advance(granularity, granularity.floor(sourceWatermark));
+            }
+        }
+    }
+
+    @Override
+    public void backfill(String startStr, String endStr) {
+        LocalDateTime start = DAY.floor(LocalDateTime.parse(startStr, formatter));
+        LocalDateTime end = DAY.ceil(LocalDateTime.parse(endStr, formatter));
+        if (!backfillRunning.compareAndSet(false, true)) {
+            throw new ValidationException("Пересчёт агрегатов уже выполняется");
+        }
+        backfillExecutor.execute(() -> {
+            try {
+                backfill(start, end);
+            } catch (RuntimeException e) {
+                log.error("Не удалось пересчитать агрегаты за период {} - {}: {}", start, end, e.getMessage(), e);
+            } finally {
+                backfillRunning.set(false);
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        backfillExecutor.shutdownNow();
+    }
+
+    private void backfill(LocalDateTime start, LocalDateTime end) {
+        for (Granularity granularity : List.of(MINUTE, HOUR, DAY)) {
+            LocalDateTime watermark = repository.findWatermarks().get(granularity);
+            if (watermark == null) {
+                continue;
+            }
+            LocalDateTime to = end.isBefore(watermark) ? end : watermark;
+            forEachChunk(granularity, start, to, (from, chunkEnd) -> aggregate(granularity, from, chunkEnd));
+            log.info("Пересчитаны агрегаты {} за период {} - {}", granularity, start, to);
+        }
+    }
+
+    @Override
+    public List<RollupMismatch> check(String startStr, String endStr) {
+        LocalDateTime start = LocalDateTime.parse(startStr, formatter);
+        LocalDateTime end = LocalDateTime.parse(endStr, formatter);
+        if (!start.isBefore(end)) {
+            throw new ValidationException("Начало не должно быть позже конца и время не должно совпадать.");
+        }
+        Map<List<String>, Long> raw = toMap(repository.findRaw(start, end, true, null));
+        Map<List<String>, Long> rolledUp = toMap(getStats(start, end, null));
+        Set<List<String>> keys = new HashSet<>(raw.keySet());
+        keys.addAll(rolledUp.keySet());
+        return keys.stream()
+                .filter(key -> !raw.getOrDefault(key, 0L).equals(rolledUp.getOrDefault(key, 0L)))
+                .map(key -> RollupMismatch.builder()
+                        .app(key.get(0))
+                        .uri(key.get(1))
+                        .rawHits(raw.getOrDefault(key, 0L))
+                        .rolledUpHits(rolledUp.getOrDefault(key, 0L))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Stats> getStats(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        Map<List<String>, Long> hits = new HashMap<>();
+        for (Segment segment : plan(start, end, COARSEST_FIRST)) {
+            List<Stats> stats = segment.granularity == null
+                    ? repository.findRaw(segment.from, segment.to, segment.inclusive, uris)
+                    : repository.findRolledUp(segment.granularity, segment.from, segment.to, uris);
+            stats.forEach(stat -> hits.merge(List.of(stat.getApp(), stat.getUri()), stat.getHits(), Long::sum));
+        }
+        return hits.entrySet().stream()
+                .map(entry -> new Stats(entry.getKey().get(0), entry.getKey().get(1), entry.getValue()))
+                .sorted(Comparator.comparingLong(Stats::getHits).reversed())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Stats> getUniqueStats(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        Map<RollupKey, HyperLogLog> sketches = new HashMap<>();
+        for (Segment segment : plan(start, end, WITH_SKETCHES)) {
+            if (segment.granularity == null) {
+                repository.findDistinctIps(null, segment.from, segment.to, segment.inclusive, uris,
+                        (key, ip) -> sketchFor(sketches, new RollupKey(null, key.getApp(), key.getUri())).add(ip));
+            } else {
+                repository.findSketches(segment.granularity, segment.from, segment.to, uris,
+                        (key, sketch) -> sketchFor(sketches, new RollupKey(null, key.getApp(), key.getUri()))
+                                .merge(sketch));
+            }
+        }
+        return sketches.entrySet().stream()
+                .map(entry -> new Stats(entry.getKey().getApp(), entry.getKey().getUri(), entry.getValue().estimate()))
+                .sorted(Comparator.comparingLong(Stats::getHits).reversed())
+                .collect(Collectors.toList());
+    }
+
+    private List<Segment> plan(LocalDateTime start, LocalDateTime end, List<Granularity> levels) {
+        List<Segment> segments = plan(start, end, repository.findWatermarks(), levels);
+        Segment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (last != null && last.granularity == null) {
+            segments.set(segments.size() - 1, new Segment(null, last.from, last.to, true));
+        } else {
+            segments.add(new Segment(null, end, end, true));
+        }
+        return segments;
+    }
+
+    private List<Segment> plan(LocalDateTime from, LocalDateTime to, Map<Granularity, LocalDateTime> watermarks,
+                               List<Granularity> levels) {
+        List<Segment> segments = new ArrayList<>();
+        if (!from.isBefore(to)) {
+            return segments;
+        }
+        for (Granularity granularity : levels) {
+            LocalDateTime watermark = watermarks.get(granularity);
+            if (watermark == null) {
+                continue;
+            }
+            LocalDateTime bucketsFrom = granularity.ceil(from);
+            LocalDateTime bucketsTo = granularity.floor(to.isBefore(watermark) ? to : watermark);
+            if (bucketsFrom.isBefore(bucketsTo)) {
+                segments.addAll(plan(from, bucketsFrom, watermarks, levels));
+                segments.add(new Segment(granularity, bucketsFrom, bucketsTo, false));
+                segments.addAll(plan(bucketsTo, to, watermarks, levels));
+                return segments;
+            }
+        }
+        segments.add(new Segment(null, from, to, false));
+        return segments;
+    }
+
+    /**
+     * Re-aggregates the buckets that received hits after their watermark had passed. Late hits are found by
+     * insertion id: each pass scans the ids stored since the pass before the previous one, so hits whose
+     * transaction committed after a larger id was seen are still picked up; recomputing a bucket is idempotent.
+     */
+    private void reaggregateLateHits() {
+        Map<Granularity, LocalDateTime> watermarks = repository.findWatermarks();
+        LocalDateTime minuteWatermark = watermarks.get(MINUTE);
+        HitIdWatermark idWatermark = repository.findHitIdWatermark();
+        long maxId = repository.findMaxHitId();
+        if (minuteWatermark != null && maxId > idWatermark.getScanFrom()) {
+            Set<LocalDateTime> days = new TreeSet<>();
+            for (LocalDateTime hour : repository.findLateHours(idWatermark.getScanFrom(), maxId, minuteWatermark)) {
+                LocalDateTime hourEnd = hour.plusHours(1);
+                transactionTemplate.executeWithoutResult(status -> {
+                    aggregate(MINUTE, hour, hourEnd.isBefore(minuteWatermark) ? hourEnd : minuteWatermark);
+                    if (isRolledUp(watermarks, HOUR, hour)) {
+                        aggregate(HOUR, hour, hourEnd);
+                    }
+                });
+                if (isRolledUp(watermarks, DAY, DAY.floor(hour))) {
+                    days.add(DAY.floor(hour));
+                }
+                log.info("Пересчитаны агрегаты за {} из-за опоздавших просмотров", hour);
+            }
+            days.forEach(day -> transactionTemplate.executeWithoutResult(status ->
+                    aggregate(DAY, day, day.plusDays(1))));
+        }
+        repository.saveHitIdWatermark(new HitIdWatermark(idWatermark.getScannedTo(), maxId));
+    }
+
+    private boolean isRolledUp(Map<Granularity, LocalDateTime> watermarks, Granularity granularity,
+                               LocalDateTime bucket) {
+        LocalDateTime watermark = watermarks.get(granularity);
+        return watermark != null && bucket.isBefore(watermark);
+    }
+
+    private void advance(Granularity granularity, LocalDateTime to) {
+        Optional<LocalDateTime> watermark = Optional.ofNullable(repository.findWatermarks().get(granularity))
+                .or(() -> repository.findFirstHitTime().map(granularity::floor));
+        if (watermark.isEmpty()) {
+            return;
+        }
+        forEachChunk(granularity, watermark.get(), to, (from, chunkEnd) -> {
+            aggregate(granularity, from, chunkEnd);
+            repository.saveWatermark(granularity, chunkEnd);
+        });
+    }
+
+    private void forEachChunk(Granularity granularity, LocalDateTime start, LocalDateTime end, ChunkAction action) {
+        LocalDateTime from = start;
+        while (from.isBefore(end)) {
+            LocalDateTime next = granularity.ceil(from.plusHours(chunkHours));
+            LocalDateTime chunkStart = from;
+            LocalDateTime chunkEnd = next.isBefore(end) ? next : end;
+            transactionTemplate.executeWithoutResult(status -> action.apply(chunkStart, chunkEnd));
+            from = chunkEnd;
+        }
+    }
+
+    private void aggregate(Granularity granularity, LocalDateTime from, LocalDateTime to) {
+        int buckets = granularity == MINUTE
+                ? repository.rollupHits(from, to)
+                : repository.rollupBuckets(granularity, from, to);
+        Map<RollupKey, HyperLogLog> sketches = new HashMap<>();
+        if (granularity == HOUR) {
+            repository.findDistinctIps(HOUR, from, to, false, null,
+                    (key, ip) -> sketchFor(sketches, key).add(ip));
+        } else if (granularity == DAY) {
+            repository.findSketches(HOUR, from, to, null, (key, sketch) ->
+                    sketchFor(sketches, new RollupKey(DAY.floor(key.getBucket()), key.getApp(), key.getUri()))
+                            .merge(sketch));
+        }
+        if (!sketches.isEmpty()) {
+            repository.saveSketches(granularity, sketches);
+        }
+        log.debug("Агрегаты {} за период {} - {}: {}", granularity, from, to, buckets);
+    }
+
+    private HyperLogLog sketchFor(Map<RollupKey, HyperLogLog> sketches, RollupKey key) {
+        return sketches.computeIfAbsent(key, k -> new HyperLogLog(precision));
+    }
+
+    private Map<List<String>, Long> toMap(List<Stats> stats) {
+        return stats.stream()
+                .collect(Collectors.toMap(stat -> List.of(stat.getApp(), stat.getUri()), Stats::getHits, Long::sum));
+    }
+
+    private interface ChunkAction {
+        void apply(LocalDateTime from, LocalDateTime to);
+    }
+
+    private static final class Segment {
+        private final Granularity granularity;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final boolean inclusive;
+
+        private Segment(Granularity granularity, LocalDateTime from, LocalDateTime to, boolean inclusive) {
+            this.granularity = granularity;
+            this.from = from;
+            this.to = to;
+            this.inclusive = inclusive;
+        }
+    }
+}
@@ -5,11 +5,19 @@ import ru.practicum.NewHitDto;
 import ru.practicum.StatsDto;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface StatService {
     HitDto create(NewHitDto dto);
 
+    Long createAll(List<NewHitDto> dtos);
+
     List<StatsDto> getStatus(String start, String end, List<String> uris, Boolean unique);
 
+    void exportStats(String start, String end, List<String> uris, Boolean unique, Consumer<StatsDto> consumer);
+
     Long getViews(String uris);
+
+    Map<String, Long> getViews(List<String> uris);
 }
@@ -1,7 +1,9 @@
 package ru.practicum.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.HitDto;
 import ru.practicum.NewHitDto;
 import ru.practicum.StatsDto;
@@ -13,30 +15,52 @@ import ru.practicum.repository.StatRepository;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "stats.service", histogram = true)
 public class StatServiceImpl implements StatService {
     private final StatRepository repository;
+    private final RollupService rollupService;
+    private final ViewCounterCache viewCache;
+    private final HitDictionary dictionary;
     private final HitMapper mapper;
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    @Override
+    @Transactional
     public HitDto create(NewHitDto dto) {
-        Hit hit = repository.save(mapper.toHit(dto));
+        Hit hit = toHit(dto);
+        repository.batchInsert(List.of(hit));
+        viewCache.record(List.of(hit));
         return mapper.toHitDto(hit);
     }
 
+    @Override
+    @Transactional
+    public Long createAll(List<NewHitDto> dtos) {
+        List<Hit> hits = dtos.stream().map(this::toHit).collect(Collectors.toList());
+        int created = repository.batchInsert(hits);
+        viewCache.record(hits);
+        return (long) created;
+    }
+
     @Override
     public List<StatsDto> getStatus(String startStr, String endStr, List<String> uris, Boolean unique) {
         List<Stats> hits;
-        LocalDateTime start = LocalDateTime.parse(startStr, formatter);
-        LocalDateTime end = LocalDateTime.parse(endStr, formatter);
-        if (start.isEqual(end) || start.isAfter(end)) {
-            throw new ValidationException("Начало не должно быть позже конца и время не должно совпадать.");
-        }
-        if (uris != null) {
+        LocalDateTime start = parse(startStr);
+        LocalDateTime end = parse(endStr);
+        checkRange(start, end);
+        if (!unique && rollupService.isEnabled()) {
+            hits = rollupService.getStats(start, end, uris);
+        } else if (unique && rollupService.isApproximateUnique()) {
+            hits = rollupService.getUniqueStats(start, end, uris);
+        } else if (uris != null) {
             if (unique) {
                 hits = repository.findStats(uris, start, end);
             } else {
@@ -52,8 +76,49 @@ public class StatServiceImpl implements StatService {
         return hits.stream().map(mapper::toStatsDto).collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void exportStats(String startStr, String endStr, List<String> uris, Boolean unique,
+                            Consumer<StatsDto> consumer) {
+        LocalDateTime start = parse(startStr);
+        LocalDateTime end = parse(endStr);
+        checkRange(start, end);
+        repository.streamStats(start, end, uris, unique, stats -> consumer.accept(mapper.toStatsDto(stats)));
+    }
+
     @Override
     public Long getViews(String uris) {
-        return repository.findStatsUrisAndUnique(uris).getHits();
+        return viewCache.getViews(uris).orElseGet(() -> {
+            Stats stats = repository.findStatsUrisAndUnique(uris);
+            return stats != null ? stats.getHits() : 0L;
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Long> getViews(List<String> uris) {
+        Map<String, Long> views = new HashMap<>(viewCache.getViews(uris));
+        List<String> missed = uris.stream()
+                .filter(uri -> !views.containsKey(uri))
+                .collect(Collectors.toList());
+        if (!missed.isEmpty()) {
+            repository.findViews(missed).forEach(stats -> views.merge(stats.getUri(), stats.getHits(), Long::sum));
+            missed.forEach(uri -> views.putIfAbsent(uri, 0L));
+        }
+        return views;
+    }
+
+    private LocalDateTime parse(String date) {
+        return LocalDateTime.parse(date, formatter);
+    }
+
+    private void checkRange(LocalDateTime start, LocalDateTime end) {
+        if (start.isEqual(end) || start.isAfter(end)) {
+            throw new ValidationException("Начало не должно быть позже конца и время не должно совпадать.");
+        }
+    }
+
+    private Hit toHit(NewHitDto dto) {
+        return mapper.toHit(dto, dictionary.app(dto.getApp()), dictionary.uri(dto.getUri()));
     }
 }
@@ -0,0 +1,216 @@
+package ru.practicum.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.model.Hit;
+import ru.practicum.model.IpSet;
+import ru.practicum.repository.StatRepository;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ViewCounterCache {
+    private final StatRepository repository;
+    private final MeterRegistry meterRegistry;
+    private final HitDictionary dictionary;
+
+    private final Map<Long, ViewCounter> counters = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> candidates = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Value("${stats.views-cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${stats.views-cache.max-uris:1000}")
+    private int maxUris;
+
+    @Value("${stats.views-cache.max-ips-per-uri:100000}")
+    private int maxIpsPerUri;
+
+    @Value("${stats.views-cache.warm-up-hours:24}")
+    private long warmUpHours;
+
+    @PostConstruct
+    public void registerMetrics() {
+        FunctionCounter.builder("stats.views.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("stats.views.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("stats.views.cache.size", counters, Map::size)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        List<Long> uriIds = repository.findPopularUriIds(LocalDateTime.now().minusHours(warmUpHours), maxUris);
+        uriIds.forEach(uriId -> counters.put(uriId, load(uriId, 0)));
+        log.info("Кеш просмотров прогрет: {} uri", counters.size());
+    }
+
+    public Optional<Long> getViews(String uri) {
+        return Optional.ofNullable(getViews(List.of(uri)).get(uri));
+    }
+
+    /**
+     * Returns the exact unique views of the requested URIs that are cached; the rest are left to the caller.
+     */
+    public Map<String, Long> getViews(Collection<String> uris) {
+        if (!enabled) {
+            return Map.of();
+        }
+        Map<String, Long> views = new HashMap<>();
+        dictionary.uriIds(uris).forEach((uri, uriId) -> {
+            ViewCounter counter = counters.get(uriId);
+            Long count = counter != null ? counter.views() : null;
+            if (count == null) {
+                misses.increment();
+                if (counter == null && candidates.size() < maxUris * 10) {
+                    candidates.computeIfAbsent(uriId, key -> new LongAdder()).increment();
+                }
+                return;
+            }
+            hits.increment();
+            counter.reads.increment();
+            views.put(uri, count);
+        });
+        return views;
+    }
+
+    public void record(List<Hit> hits) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            hits.forEach(this::record);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                hits.forEach(ViewCounterCache.this::record);
+            }
+        });
+    }
+
+    private void record(Hit hit) {
+        ViewCounter counter = counters.get(hit.getUri().getId());
+        if (counter != null) {
+            counter.add(hit.getIp());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${stats.views-cache.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        counters.forEach((uriId, counter) -> {
+            counter.halveReads();
+            sync(uriId, counter);
+        });
+        List<Map.Entry<Long, Long>> hottest = candidates.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
+                .limit(maxUris)
+                .collect(Collectors.toList());
+        candidates.clear();
+        for (Map.Entry<Long, Long> candidate : hottest) {
+            if (counters.size() >= maxUris) {
+                Optional<Map.Entry<Long, ViewCounter>> coldest = counters.entrySet().stream()
+                        .min(Comparator.comparingLong(entry -> entry.getValue().reads.sum()));
+                if (coldest.isEmpty() || coldest.get().getValue().reads.sum() >= candidate.getValue()) {
+                    break;
+                }
+                counters.remove(coldest.get().getKey());
+            }
+            counters.put(candidate.getKey(), load(candidate.getKey(), candidate.getValue()));
+        }
+        log.debug("Кеш просмотров сверен с базой: {} uri", counters.size());
+    }
+
+    private ViewCounter load(long uriId, long reads) {
+        ViewCounter counter = new ViewCounter(maxIpsPerUri);
+        counter.reads.add(reads);
+        sync(uriId, counter);
+        return counter;
+    }
+
+    /**
+     * Adds the IPs of hits stored since the start of the sync before the previous one. The overlap catches hits
+     * committed while the previous sync was reading; re-adding an IP is a no-op, so nothing is counted twice.
+     */
+    private void sync(long uriId, ViewCounter counter) {
+        if (!counter.isExact()) {
+            return;
+        }
+        LocalDateTime started = LocalDateTime.now();
+        repository.findIps(uriId, counter.syncFrom, counter::add);
+        counter.syncFrom = counter.lastSync != null ? counter.lastSync : started;
+        counter.lastSync = started;
+    }
+
+    /**
+     * Unique IPs of one URI. Once a URI exceeds {@code max-ips-per-uri} its set is released and the counter stays
+     * only as a marker that keeps the URI out of the candidates, so its views are read from the database.
+     */
+    private static final class ViewCounter {
+        private final int maxIps;
+        private volatile IpSet ips = new IpSet();
+        private final LongAdder reads = new LongAdder();
+        private LocalDateTime syncFrom;
+        private LocalDateTime lastSync;
+
+        private ViewCounter(int maxIps) {
+            this.maxIps = maxIps;
+        }
+
+        private void add(String ip) {
+            IpSet current = ips;
+            if (current != null && current.add(ip) && current.size() > maxIps) {
+                ips = null;
+            }
+        }
+
+        private boolean isExact() {
+            return ips != null;
+        }
+
+        private Long views() {
+            IpSet current = ips;
+            return current != null ? (long) current.size() : null;
+        }
+
+        private void halveReads() {
+            long current = reads.sumThenReset();
+            reads.add(current / 2);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+
+CREATE TABLE IF NOT EXISTS hits (
+  id    bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  app  varchar(255) NOT NULL,
+  uri varchar(512) NOT NULL,
+  ip varchar(255) NOT NULL,
+  time timestamp NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS hit_rollups (
+  granularity varchar(16) NOT NULL,
+  bucket timestamp NOT NULL,
+  app varchar(255) NOT NULL,
+  uri varchar(512) NOT NULL,
+  hits bigint NOT NULL,
+  CONSTRAINT pk_hit_rollups PRIMARY KEY (granularity, bucket, app, uri)
+);
+
+CREATE TABLE IF NOT EXISTS rollup_watermarks (
+  granularity varchar(16) PRIMARY KEY,
+  rolled_up_to timestamp NOT NULL
+);
+
+ALTER TABLE hit_rollups ADD COLUMN IF NOT EXISTS ips bytea;
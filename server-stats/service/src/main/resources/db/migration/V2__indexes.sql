@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS hits_uri_time_idx ON hits (uri, time) INCLUDE (app, ip);
+CREATE INDEX IF NOT EXISTS hits_time_idx ON hits (time);
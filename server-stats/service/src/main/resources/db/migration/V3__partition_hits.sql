@@ -0,0 +1,36 @@
+ALTER TABLE hits RENAME TO hits_legacy;
+ALTER INDEX IF EXISTS hits_uri_time_idx RENAME TO hits_legacy_uri_time_idx;
+ALTER INDEX IF EXISTS hits_time_idx RENAME TO hits_legacy_time_idx;
+
+CREATE TABLE hits (
+  id    bigserial NOT NULL,
+  app  varchar(255) NOT NULL,
+  uri varchar(512) NOT NULL,
+  ip varchar(255) NOT NULL,
+  time timestamp NOT NULL,
+  CONSTRAINT pk_hits PRIMARY KEY (id, time)
+) PARTITION BY RANGE (time);
+
+CREATE TABLE hits_default PARTITION OF hits DEFAULT;
+
+DO $$
+DECLARE
+  part_start timestamp;
+  part_last timestamp;
+BEGIN
+  SELECT date_trunc('month', coalesce(min(time), now())), date_trunc('month', greatest(coalesce(max(time), now()), now()))
+    INTO part_start, part_last
+    FROM hits_legacy;
+  WHILE part_start <= part_last + interval '3 months' LOOP
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF hits FOR VALUES FROM (%L) TO (%L)',
+                   'hits_' || to_char(part_start, '"y"YYYY"m"MM'), part_start, part_start + interval '1 month');
+    part_start := part_start + interval '1 month';
+  END LOOP;
+END $$;
+
+INSERT INTO hits (id, app, uri, ip, time) SELECT id, app, uri, ip, time FROM hits_legacy;
+SELECT setval(pg_get_serial_sequence('hits', 'id'), coalesce((SELECT max(id) FROM hits_legacy), 0) + 1, false);
+DROP TABLE hits_legacy;
+
+CREATE INDEX hits_uri_time_idx ON hits (uri, time) INCLUDE (app, ip);
+CREATE INDEX hits_time_idx ON hits (time);
@@ -0,0 +1,26 @@
+-- Backfill: fills the new columns of existing hits in id ranges of 50 000 rows and commits after each range, so
+-- row locks are short, dead tuples are vacuumed as the loop goes and an interrupted run resumes where it stopped.
+-- Runs outside a transaction (see the .conf file next to this script).
+
+DO $$
+DECLARE
+  batch_from bigint;
+  last_id bigint;
+BEGIN
+  SELECT coalesce(min(id), 0), coalesce(max(id), 0) INTO batch_from, last_id FROM hits WHERE app_id IS NULL;
+  WHILE batch_from <= last_id LOOP
+    INSERT INTO apps (name)
+    SELECT DISTINCT app FROM hits WHERE id >= batch_from AND id < batch_from + 50000 AND app_id IS NULL
+    ON CONFLICT (name) DO NOTHING;
+    INSERT INTO uris (uri)
+    SELECT DISTINCT uri FROM hits WHERE id >= batch_from AND id < batch_from + 50000 AND app_id IS NULL
+    ON CONFLICT (uri) DO NOTHING;
+
+    UPDATE hits SET app_id = apps.id, uri_id = uris.id, ip_address = hits_to_inet(hits.ip)
+      FROM apps, uris
+     WHERE hits.id >= batch_from AND hits.id < batch_from + 50000 AND hits.app_id IS NULL
+       AND apps.name = hits.app AND uris.uri = hits.uri;
+    COMMIT;
+    batch_from := batch_from + 50000;
+  END LOOP;
+END $$;
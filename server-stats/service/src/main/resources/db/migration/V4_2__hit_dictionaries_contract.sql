@@ -0,0 +1,48 @@
+-- Contract: makes the backfilled columns mandatory, builds the new index and drops the old columns. Runs outside
+-- a transaction (see the .conf file next to this script) so each step holds its locks only for itself:
+--  * the checks are added NOT VALID and validated under SHARE UPDATE EXCLUSIVE, which lets reads and writes go on,
+--    and SET NOT NULL then relies on them instead of scanning the table under ACCESS EXCLUSIVE;
+--  * the index is built one partition at a time; inserts into the partition being indexed wait for its build
+--    (the current month is the only partition that receives inserts), reads are not blocked;
+--  * the switch to the new columns is a catalog-only change. From then on inserts of a service that still writes
+--    app and uri fail; ewm spills such hits to disk and resends them to the new service.
+-- Rows rewritten by the backfill leave dead tuples behind; autovacuum makes the space reusable, the table does not
+-- shrink on disk until VACUUM FULL or pg_repack is run in a maintenance window.
+
+ALTER TABLE hits
+  ADD CONSTRAINT hits_app_id_not_null CHECK (app_id IS NOT NULL) NOT VALID,
+  ADD CONSTRAINT hits_uri_id_not_null CHECK (uri_id IS NOT NULL) NOT VALID;
+ALTER TABLE hits VALIDATE CONSTRAINT hits_app_id_not_null;
+ALTER TABLE hits VALIDATE CONSTRAINT hits_uri_id_not_null;
+ALTER TABLE hits ALTER COLUMN app_id SET NOT NULL, ALTER COLUMN uri_id SET NOT NULL;
+ALTER TABLE hits DROP CONSTRAINT hits_app_id_not_null, DROP CONSTRAINT hits_uri_id_not_null;
+
+CREATE INDEX hits_uri_id_time_idx ON ONLY hits (uri_id, time) INCLUDE (app_id, ip_address);
+
+DO $$
+DECLARE
+  part text;
+BEGIN
+  -- partitions created meanwhile get the index from the parent and are already attached
+  FOR part IN
+    SELECT p.inhrelid::regclass::text FROM pg_inherits p
+     WHERE p.inhparent = 'hits'::regclass
+       AND NOT EXISTS (SELECT 1 FROM pg_inherits i JOIN pg_index x ON x.indexrelid = i.inhrelid
+                        WHERE i.inhparent = 'hits_uri_id_time_idx'::regclass AND x.indrelid = p.inhrelid)
+  LOOP
+    EXECUTE format('CREATE INDEX %I ON %I (uri_id, time) INCLUDE (app_id, ip_address)',
+                   part || '_uri_id_time_idx', part);
+    EXECUTE format('ALTER INDEX hits_uri_id_time_idx ATTACH PARTITION %I', part || '_uri_id_time_idx');
+    COMMIT;
+  END LOOP;
+END $$;
+
+BEGIN;
+DROP TRIGGER hits_fill_dictionaries ON hits;
+DROP INDEX hits_uri_time_idx;
+ALTER TABLE hits DROP COLUMN app, DROP COLUMN uri, DROP COLUMN ip;
+ALTER TABLE hits RENAME COLUMN ip_address TO ip;
+COMMIT;
+
+DROP FUNCTION hits_fill_dictionaries();
+DROP FUNCTION hits_to_inet(varchar);
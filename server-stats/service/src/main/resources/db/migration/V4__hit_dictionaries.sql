@@ -0,0 +1,38 @@
+-- Expand: dictionaries and new nullable columns next to the old ones. Adding a nullable column without a default
+-- only touches the catalog, so the old service keeps writing app, uri and ip while V4_1 backfills and V4_2 switches
+-- over; the trigger fills the new columns of the rows it writes in the meantime.
+
+CREATE TABLE IF NOT EXISTS apps (
+  id    int GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  name  varchar(255) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS uris (
+  id    bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  uri   varchar(512) NOT NULL UNIQUE
+);
+
+ALTER TABLE hits ADD COLUMN app_id int, ADD COLUMN uri_id bigint, ADD COLUMN ip_address inet;
+
+-- addresses that do not parse become NULL: they are not counted as unique visitors and do not merge into one
+CREATE FUNCTION hits_to_inet(value varchar) RETURNS inet AS $$
+BEGIN
+  RETURN value::inet;
+EXCEPTION WHEN invalid_text_representation THEN
+  RETURN NULL;
+END $$ LANGUAGE plpgsql IMMUTABLE;
+
+CREATE FUNCTION hits_fill_dictionaries() RETURNS trigger AS $$
+BEGIN
+  IF NEW.app_id IS NULL THEN
+    INSERT INTO apps (name) VALUES (NEW.app) ON CONFLICT (name) DO NOTHING;
+    INSERT INTO uris (uri) VALUES (NEW.uri) ON CONFLICT (uri) DO NOTHING;
+    SELECT id INTO NEW.app_id FROM apps WHERE name = NEW.app;
+    SELECT id INTO NEW.uri_id FROM uris WHERE uri = NEW.uri;
+    NEW.ip_address := hits_to_inet(NEW.ip);
+  END IF;
+  RETURN NEW;
+END $$ LANGUAGE plpgsql;
+
+CREATE TRIGGER hits_fill_dictionaries BEFORE INSERT ON hits
+  FOR EACH ROW EXECUTE FUNCTION hits_fill_dictionaries();
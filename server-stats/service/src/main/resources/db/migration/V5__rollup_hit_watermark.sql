@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS rollup_hit_watermark (
+  id int PRIMARY KEY CHECK (id = 1),
+  scan_from bigint NOT NULL,
+  scanned_to bigint NOT NULL
+);
+
+INSERT INTO rollup_hit_watermark (id, scan_from, scanned_to)
+SELECT 1, coalesce(max(id), 0), coalesce(max(id), 0) FROM hits;
@@ -0,0 +1,111 @@
+package ru.practicum.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+    private static final int PRECISION = 12;
+    private static final int REGISTERS = 1 << PRECISION;
+
+    @Test
+    void switchesFromSparseToDenseWithoutChangingEstimate() {
+        HyperLogLog sketch = new HyperLogLog(PRECISION);
+        long before = 0;
+        int value = 0;
+        while (isSparse(sketch)) {
+            before = sketch.estimate();
+            sketch.add(ip(value++));
+        }
+
+        assertThat(sketch.toBytes()).hasSize(2 + REGISTERS);
+        assertThat(Math.abs(sketch.estimate() - before)).isLessThanOrEqualTo(1);
+        assertThat(HyperLogLog.fromBytes(sketch.toBytes()).estimate()).isEqualTo(sketch.estimate());
+    }
+
+    @Test
+    void sparseSketchSurvivesSerialization() {
+        HyperLogLog sketch = sketch(0, 100);
+
+        assertThat(isSparse(sketch)).isTrue();
+        assertThat(HyperLogLog.fromBytes(sketch.toBytes()).estimate()).isEqualTo(sketch.estimate());
+    }
+
+    @Test
+    void mergeIsAssociativeAndCommutative() {
+        // a and c are dense, b stays sparse, so both merge paths are exercised
+        long leftFirst = merged(merged(sketch(0, 5_000), sketch(4_900, 5_100)), sketch(5_000, 20_000)).estimate();
+        long rightFirst = merged(sketch(0, 5_000), merged(sketch(4_900, 5_100), sketch(5_000, 20_000))).estimate();
+        long reversed = merged(merged(sketch(5_000, 20_000), sketch(4_900, 5_100)), sketch(0, 5_000)).estimate();
+
+        assertThat(leftFirst).isEqualTo(rightFirst).isEqualTo(reversed);
+        assertThat(leftFirst).isEqualTo(sketch(0, 20_000).estimate());
+    }
+
+    @Test
+    void mergeIsIdempotent() {
+        HyperLogLog sketch = sketch(0, 10_000);
+        long estimate = sketch.estimate();
+
+        sketch.merge(sketch(0, 10_000));
+        sketch.merge(sketch(2_000, 3_000));
+        sketch.merge(sketch);
+
+        assertThat(sketch.estimate()).isEqualTo(estimate);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"12, 1000", "12, 100000", "12, 1000000", "14, 1000", "14, 100000", "14, 1000000"})
+    void relativeErrorStaysWithinThreeStandardErrors(int precision, int distinct) {
+        HyperLogLog sketch = new HyperLogLog(precision);
+        for (int i = 0; i < distinct; i++) {
+            sketch.add(ip(i));
+            sketch.add(ip(i));
+        }
+
+        double error = Math.abs(sketch.estimate() - distinct) / (double) distinct;
+
+        assertThat(error).isLessThanOrEqualTo(3 * HyperLogLog.standardError(precision));
+    }
+
+    /**
+     * Without the linear counting correction a nearly empty sketch estimates about {@code 0.72 * m}.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100, 1000})
+    void smallRangesUseLinearCounting(int distinct) {
+        HyperLogLog sketch = sketch(0, distinct);
+
+        assertThat((double) sketch.estimate()).isCloseTo(distinct, within(Math.max(1, distinct * 0.01)));
+    }
+
+    @Test
+    void emptySketchEstimatesZero() {
+        assertThat(new HyperLogLog(PRECISION).estimate()).isZero();
+    }
+
+    private static HyperLogLog sketch(int from, int to) {
+        HyperLogLog sketch = new HyperLogLog(PRECISION);
+        for (int i = from; i < to; i++) {
+            sketch.add(ip(i));
+        }
+        return sketch;
+    }
+
+    private static HyperLogLog merged(HyperLogLog left, HyperLogLog right) {
+        left.merge(right);
+        return left;
+    }
+
+    private static boolean isSparse(HyperLogLog sketch) {
+        return sketch.toBytes()[0] == 1;
+    }
+
+    private static String ip(int value) {
+        return (10 + (value >>> 24)) + "." + ((value >>> 16) & 0xff) + "." + ((value >>> 8) & 0xff) + "." + (value & 0xff);
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.model;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IpSetTest {
+    @Test
+    void countsEachAddressOnceAcrossNotations() {
+        IpSet ips = new IpSet();
+
+        assertThat(ips.add("::1")).isTrue();
+        assertThat(ips.add("0:0:0:0:0:0:0:1")).isFalse();
+        assertThat(ips.add("2001:db8::1")).isTrue();
+        assertThat(ips.add("2001:DB8:0:0:0:0:0:1")).isFalse();
+        assertThat(ips.add("10.0.0.1")).isTrue();
+        assertThat(ips.add("10.0.0.1")).isFalse();
+
+        assertThat(ips.size()).isEqualTo(3);
+    }
+
+    @Test
+    void keepsMappedIpv6ApartFromIpv4LikePostgres() {
+        IpSet ips = new IpSet();
+
+        ips.add("192.168.0.1");
+        ips.add("::ffff:192.168.0.1");
+
+        assertThat(ips.size()).isEqualTo(2);
+    }
+
+    @Test
+    void storesZeroAndBroadcastAddresses() {
+        IpSet ips = new IpSet();
+
+        assertThat(ips.add("0.0.0.0")).isTrue();
+        assertThat(ips.add("255.255.255.255")).isTrue();
+        assertThat(ips.add("::")).isTrue();
+
+        assertThat(ips.size()).isEqualTo(3);
+    }
+
+    @Test
+    void countsManyAddressesExactlyInAtMostThirtyTwoBytesEach() {
+        IpSet ips = new IpSet();
+        int count = 300_000;
+        for (int i = 0; i < count; i++) {
+            ips.add(ipv4(i));
+            ips.add("2001:db8::" + Integer.toHexString(i >>> 16) + ":" + Integer.toHexString(i & 0xffff));
+        }
+        for (int i = 0; i < count; i++) {
+            assertThat(ips.add(ipv4(i))).isFalse();
+        }
+
+        long[] table = (long[]) ReflectionTestUtils.getField(ips, "table");
+        assertThat(ips.size()).isEqualTo(2 * count);
+        assertThat(table.length * (long) Long.BYTES).isLessThanOrEqualTo(32L * ips.size());
+    }
+
+    @Test
+    void rejectsMalformedAddress() {
+        assertThatThrownBy(() -> IpSet.pack("10.0.0.1/33"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String ipv4(int value) {
+        return (10 + (value >>> 24)) + "." + ((value >>> 16) & 0xff) + "." + ((value >>> 8) & 0xff) + "." + (value & 0xff);
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Прогоняет миграцию справочников V4 - V4_2 по базе со схемой V3: строки, записанные до миграции и старой версией
+ * сервиса между шагами, получают идентификаторы, а адреса, которые не разбираются как inet, становятся NULL.
+ */
+class HitDictionariesMigrationTest {
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void start() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        migrate(dataSource, "3");
+        jdbcTemplate.update("insert into hits (app, uri, ip, time) values " +
+                "('ewm-service', '/events/1', '10.0.0.1', now()), " +
+                "('ewm-service', '/events/2', 'unknown', now()), " +
+                "('ewm-service', '/events/1', '', now() - interval '40 days')");
+        migrate(dataSource, "4");
+        // старая версия сервиса продолжает писать в прежние столбцы, пока идёт заполнение
+        jdbcTemplate.update("insert into hits (app, uri, ip, time) " +
+                "values ('main-service', '/events/3', '10.0.0.2', now())");
+        migrate(dataSource, "latest");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void hitsReferenceDictionaries() {
+        List<Map<String, Object>> hits = jdbcTemplate.queryForList("select apps.name as app, uris.uri, " +
+                "host(ip) as ip from hits join apps on apps.id = app_id join uris on uris.id = uri_id " +
+                "order by hits.id");
+
+        assertThat(hits).extracting(hit -> hit.get("app"), hit -> hit.get("uri"), hit -> hit.get("ip"))
+                .containsExactly(
+                        tuple("ewm-service", "/events/1", "10.0.0.1"),
+                        tuple("ewm-service", "/events/2", null),
+                        tuple("ewm-service", "/events/1", null),
+                        tuple("main-service", "/events/3", "10.0.0.2"));
+    }
+
+    @Test
+    void legacyColumnsAndHelpersAreDropped() {
+        assertThat(jdbcTemplate.queryForList("select column_name from information_schema.columns " +
+                "where table_name = 'hits' order by column_name", String.class))
+                .containsExactly("app_id", "id", "ip", "time", "uri_id");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from pg_proc " +
+                "where proname in ('hits_to_inet', 'hits_fill_dictionaries')", Integer.class)).isZero();
+        assertThatThrownBy(() -> jdbcTemplate.update("insert into hits (app_id, uri_id, ip, time) " +
+                "values (null, 1, '10.0.0.3', now())")).hasMessageContaining("app_id");
+    }
+
+    @Test
+    void everyPartitionHasUriIndex() {
+        assertThat(jdbcTemplate.queryForObject("select indisvalid from pg_index " +
+                "where indexrelid = 'hits_uri_id_time_idx'::regclass", Boolean.class)).isTrue();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from pg_partition_tree('hits_uri_id_time_idx') " +
+                "where isleaf", Integer.class))
+                .isEqualTo(jdbcTemplate.queryForObject("select count(*) from pg_partition_tree('hits') " +
+                        "where isleaf", Integer.class));
+    }
+
+    private static void migrate(DataSource dataSource, String target) {
+        Flyway.configure().dataSource(dataSource).target(target).load().migrate();
+    }
+}
@@ -0,0 +1,193 @@
+package ru.practicum.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.service.StatService;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+/**
+ * Проверяет, что запросы статистики к секционированной таблице hits читают каждую секцию по индексу. Сценарии
+ * вызывают сервис, SQL с параметрами перехватывается через datasource-proxy, EXPLAIN строится с настройками
+ * планировщика по умолчанию на полумиллионе обращений после ANALYZE. Свёртки отключены, чтобы запросы шли в hits.
+ */
+@SpringBootTest(properties = {"stats.rollup.enabled=false", "stats.views-cache.enabled=false"})
+class IndexUsageTest {
+    private static final String URI_ID_TIME_INDEX = "hits_(default|y\\d{4}m\\d{2})_uri_id_time\\w*_idx";
+    private static final String TIME_INDEX = "hits_(default|y\\d{4}m\\d{2})_time_idx";
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    @Autowired
+    private StatService statService;
+
+    @Autowired
+    private StatRepository statRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final QueryCapture capture = new QueryCapture();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @BeforeEach
+    void startCapture() {
+        ((ProxyDataSource) dataSource).getProxyConfig().getQueryListener().addListener(capture);
+    }
+
+    @AfterEach
+    void stopCapture() {
+        ((ProxyDataSource) dataSource).getProxyConfig().getQueryListener().getListeners().remove(capture);
+    }
+
+    @TestFactory
+    @Sql("/index-dataset.sql")
+    Stream<DynamicTest> queriesUseIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        String hourAgo = now.minusHours(1).format(FORMATTER);
+        String dayAgo = now.minusDays(1).format(FORMATTER);
+        String end = now.format(FORMATTER);
+        List<String> uris = List.of("/events/7", "/events/8");
+        return Stream.of(
+                scenario("unique stats by uri", URI_ID_TIME_INDEX,
+                        () -> statService.getStatus(dayAgo, end, uris, true)),
+                scenario("stats by uri", URI_ID_TIME_INDEX,
+                        () -> statService.getStatus(dayAgo, end, uris, false)),
+                scenario("views of one uri", URI_ID_TIME_INDEX, () -> statService.getViews("/events/7")),
+                scenario("views of many uris", URI_ID_TIME_INDEX, () -> statService.getViews(uris)),
+                scenario("cache warm-up ips", URI_ID_TIME_INDEX,
+                        () -> statRepository.findIps(7, now.minusHours(1), ip -> {
+                        })),
+                scenario("unique stats of all uris", TIME_INDEX,
+                        () -> statService.getStatus(hourAgo, end, null, true)),
+                scenario("stats of all uris", TIME_INDEX,
+                        () -> statService.getStatus(hourAgo, end, null, false)),
+                scenario("popular uris", TIME_INDEX,
+                        () -> statRepository.findPopularUriIds(now.minusHours(1), 10))
+        );
+    }
+
+    private DynamicTest scenario(String name, String indexPattern, Executable action) {
+        return dynamicTest(name, () -> {
+            String plans = capture.during(action).stream()
+                    .filter(query -> query.getQuery().contains("hits"))
+                    .map(query -> explain(query.getQuery(), query.getParametersList().isEmpty()
+                            ? List.of() : query.getParametersList().get(0)))
+                    .collect(Collectors.joining("\n"));
+            assertThat(plans).as("планы запросов к hits")
+                    .isNotBlank()
+                    .containsPattern(indexPattern);
+            // пустые будущие секции планировщик читает последовательно, это бесплатно
+            jdbcTemplate.queryForList("select distinct tableoid::regclass::text from hits", String.class)
+                    .forEach(partition -> assertThat(plans).doesNotContain("Seq Scan on " + partition + " "));
+        });
+    }
+
+    private String explain(String sql, List<ParameterSetOperation> parameters) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                for (ParameterSetOperation parameter : parameters) {
+                    parameter.getMethod().invoke(statement, parameter.getArgs());
+                }
+                StringBuilder plan = new StringBuilder(sql).append('\n');
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new SQLException("Не удалось повторить параметры запроса " + sql, e);
+            }
+        });
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                    // the process is going away anyway
+                }
+            }));
+            return postgres;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Collects the statements the calling thread executes while an action runs, so scheduled jobs and the
+     * EXPLAIN statements themselves are left out.
+     */
+    private static class QueryCapture implements QueryExecutionListener {
+        private final List<QueryInfo> queries = new CopyOnWriteArrayList<>();
+        private volatile Thread thread;
+
+        List<QueryInfo> during(Executable action) throws Throwable {
+            queries.clear();
+            thread = Thread.currentThread();
+            try {
+                action.execute();
+            } finally {
+                thread = null;
+            }
+            return new ArrayList<>(queries);
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (Thread.currentThread() == thread) {
+                queries.addAll(queryInfoList);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.model.Hit;
+import ru.practicum.model.HitUri;
+import ru.practicum.repository.StatRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ViewCounterCacheTest {
+    private static final long POPULAR = 1;
+    private static final long QUIET = 2;
+    private static final Map<String, Long> URI_IDS = Map.of("/events/1", POPULAR, "/events/2", QUIET);
+
+    private final StatRepository repository = mock(StatRepository.class);
+    private final HitDictionary dictionary = mock(HitDictionary.class);
+    private final Map<Long, List<String>> storedIps = new HashMap<>();
+
+    private ViewCounterCache cache;
+
+    @BeforeEach
+    void createCache() {
+        cache = new ViewCounterCache(repository, new SimpleMeterRegistry(), dictionary);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxUris", 1);
+        ReflectionTestUtils.setField(cache, "maxIpsPerUri", 4);
+        ReflectionTestUtils.setField(cache, "warmUpHours", 24L);
+        when(dictionary.uriIds(anyCollection())).thenAnswer(invocation -> {
+            Map<String, Long> ids = new HashMap<>();
+            invocation.<Collection<String>>getArgument(0).forEach(uri -> {
+                if (URI_IDS.containsKey(uri)) {
+                    ids.put(uri, URI_IDS.get(uri));
+                }
+            });
+            return ids;
+        });
+        when(repository.findPopularUriIds(any(), anyInt())).thenReturn(List.of(POPULAR));
+        doAnswer(invocation -> {
+            Consumer<String> consumer = invocation.getArgument(2);
+            storedIps.getOrDefault(invocation.<Long>getArgument(0), List.of()).forEach(consumer);
+            return null;
+        }).when(repository).findIps(anyLong(), any(), any());
+        storedIps.put(POPULAR, List.of("10.0.0.1", "::1", "0:0:0:0:0:0:0:1"));
+        storedIps.put(QUIET, List.of("10.0.0.1", "10.0.0.2"));
+    }
+
+    @Test
+    void warmUpCountsDistinctIpsByUriId() {
+        cache.warmUp();
+
+        assertThat(cache.getViews("/events/1")).contains(2L);
+        assertThat(cache.getViews("/events/2")).isEmpty();
+        verify(repository).findIps(eq(POPULAR), isNull(), any());
+    }
+
+    @Test
+    void recordsNewIpsOnly() {
+        cache.warmUp();
+
+        cache.record(List.of(hit(POPULAR, "10.0.0.1"), hit(POPULAR, "10.0.0.3"), hit(QUIET, "10.0.0.4")));
+
+        assertThat(cache.getViews(List.of("/events/1", "/events/2"))).containsExactly(Map.entry("/events/1", 3L));
+    }
+
+    @Test
+    void unknownUrisAreNeitherCachedNorCandidates() {
+        cache.warmUp();
+
+        assertThat(cache.getViews("/events/404")).isEmpty();
+
+        assertThat((Map<?, ?>) ReflectionTestUtils.getField(cache, "candidates")).isEmpty();
+    }
+
+    @Test
+    void reconcileReplacesColdUriWithHotterCandidate() {
+        cache.warmUp();
+        cache.getViews("/events/2");
+        cache.getViews("/events/2");
+
+        cache.reconcile();
+
+        assertThat(cache.getViews("/events/2")).contains(2L);
+        assertThat(cache.getViews("/events/1")).isEmpty();
+    }
+
+    @Test
+    void uriOverIpLimitIsServedFromDatabase() {
+        cache.warmUp();
+
+        cache.record(List.of(hit(POPULAR, "10.0.0.3"), hit(POPULAR, "10.0.0.4")));
+        assertThat(cache.getViews("/events/1")).contains(4L);
+        cache.record(List.of(hit(POPULAR, "10.0.0.5")));
+
+        assertThat(cache.getViews("/events/1")).isEmpty();
+        cache.reconcile();
+        assertThat(cache.getViews("/events/1")).isEmpty();
+    }
+
+    private static Hit hit(long uriId, String ip) {
+        return Hit.builder()
+                .uri(new HitUri(uriId, "/events/" + uriId))
+                .ip(ip)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
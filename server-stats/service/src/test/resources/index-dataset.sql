@@ -0,0 +1,12 @@
+TRUNCATE hits, uris, apps RESTART IDENTITY;
+
+INSERT INTO apps (name) VALUES ('ewm-main-service');
+
+INSERT INTO uris (uri) SELECT '/events/' || i FROM generate_series(1, 1000) i;
+
+-- 500 000 hits over the last 30 days, one every ~5 seconds, from 50 000 addresses
+INSERT INTO hits (app_id, uri_id, ip, time)
+SELECT 1, k * 7919 % 1000 + 1, '10.0.0.0'::inet + k * 104729 % 50000, now() - k * interval '5 seconds'
+FROM generate_series(1::bigint, 500000) k;
+
+ANALYZE;
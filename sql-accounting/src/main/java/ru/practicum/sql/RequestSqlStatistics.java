@@ -0,0 +1,46 @@
+package ru.practicum.sql;
+
+import lombok.Getter;
+
+import java.util.Optional;
+
+/**
+ * Счётчики SQL текущего HTTP-запроса. Живут в ThreadLocal от начала до конца обработки запроса,
+ * поэтому запросы из фоновых задач в них не попадают.
+ */
+@Getter
+public class RequestSqlStatistics {
+    private static final ThreadLocal<RequestSqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long writes;
+    private long rows;
+    private long elapsedMillis;
+
+    public static RequestSqlStatistics start() {
+        RequestSqlStatistics statistics = new RequestSqlStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    public static void finish() {
+        CURRENT.remove();
+    }
+
+    public static Optional<RequestSqlStatistics> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    void addStatement(long elapsedMillis, long rows, boolean write) {
+        this.statements++;
+        if (write) {
+            this.writes++;
+        }
+        this.elapsedMillis += elapsedMillis;
+        this.rows += rows;
+    }
+
+    void addRow() {
+        rows++;
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.sql;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+@Component
+public class SqlAccountingDataSourcePostProcessor implements BeanPostProcessor {
+    private final ObjectProvider<SqlAccountingListener> listener;
+    private final boolean enabled;
+
+    public SqlAccountingDataSourcePostProcessor(ObjectProvider<SqlAccountingListener> listener,
+                                                @Value("${sql.accounting.enabled:true}") boolean enabled) {
+        this.listener = listener;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled || !(bean instanceof DataSource) || bean instanceof ProxyDataSource) {
+            return bean;
+        }
+        SqlAccountingListener accountingListener = listener.getObject();
+        return ProxyDataSourceBuilder.create(beanName, (DataSource) bean)
+                .listener(accountingListener)
+                .methodListener(accountingListener)
+                .proxyResultSet()
+                .build();
+    }
+}
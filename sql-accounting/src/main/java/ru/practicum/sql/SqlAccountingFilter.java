@@ -0,0 +1,89 @@
+package ru.practicum.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SqlAccountingFilter extends OncePerRequestFilter {
+    private static final String COUNT_HEADER = "X-Sql-Count";
+    private static final String TIME_HEADER = "X-Sql-Time";
+
+    private final SqlAccountingProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestSqlStatistics statistics = RequestSqlStatistics.start();
+        ContentCachingResponseWrapper cachingResponse = properties.isHeaders()
+                ? new ContentCachingResponseWrapper(response) : null;
+        try {
+            chain.doFilter(request, cachingResponse != null ? cachingResponse : response);
+        } finally {
+            RequestSqlStatistics.finish();
+            record(request, statistics);
+            if (cachingResponse != null) {
+                cachingResponse.setHeader(COUNT_HEADER, String.valueOf(statistics.getStatements()));
+                cachingResponse.setHeader(TIME_HEADER, String.valueOf(statistics.getElapsedMillis()));
+                cachingResponse.copyBodyToResponse();
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestSqlStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("sql.request.statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statistics.getStatements());
+        DistributionSummary.builder("sql.request.writes")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statistics.getWrites());
+        DistributionSummary.builder("sql.request.rows")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statistics.getRows());
+        Timer.builder("sql.request.time")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statistics.getElapsedMillis(), TimeUnit.MILLISECONDS);
+        int budget = properties.budgetFor(request.getMethod(), uri);
+        if (statistics.getStatements() > budget) {
+            log.warn("Запрос {} {} выполнил {} SQL-запросов при бюджете {}: изменяющих {}, строк {}, время JDBC {} мс",
+                    request.getMethod(), request.getRequestURI(), statistics.getStatements(), budget,
+                    statistics.getWrites(), statistics.getRows(), statistics.getElapsedMillis());
+        } else {
+            log.debug("Запрос {} {}: SQL-запросов {}, изменяющих {}, строк {}, время JDBC {} мс", request.getMethod(),
+                    request.getRequestURI(), statistics.getStatements(), statistics.getWrites(), statistics.getRows(),
+                    statistics.getElapsedMillis());
+        }
+    }
+}
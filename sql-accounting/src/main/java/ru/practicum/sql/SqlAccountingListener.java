@@ -0,0 +1,60 @@
+package ru.practicum.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Locale;
+
+@Component
+public class SqlAccountingListener implements QueryExecutionListener, MethodExecutionListener {
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestSqlStatistics.current()
+                .ifPresent(statistics -> statistics.addStatement(execInfo.getElapsedTime(), affectedRows(execInfo),
+                        queryInfoList.stream().anyMatch(query -> isWrite(query.getQuery()))));
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            RequestSqlStatistics.current().ifPresent(RequestSqlStatistics::addRow);
+        }
+    }
+
+    private boolean isWrite(String sql) {
+        String statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return statement.startsWith("insert") || statement.startsWith("update") || statement.startsWith("delete")
+                || statement.startsWith("merge");
+    }
+
+    private long affectedRows(ExecutionInfo execInfo) {
+        Object result = execInfo.getResult();
+        if (result instanceof Integer) {
+            return Math.max((Integer) result, 0);
+        }
+        if (result instanceof int[]) {
+            long rows = 0;
+            for (int count : (int[]) result) {
+                rows += Math.max(count, 0);
+            }
+            return rows;
+        }
+        return 0;
+    }
+}
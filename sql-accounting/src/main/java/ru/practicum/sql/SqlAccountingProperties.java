@@ -0,0 +1,30 @@
+package ru.practicum.sql;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "sql.accounting")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SqlAccountingProperties {
+    boolean enabled = true;
+    boolean headers = false;
+    int statementBudget = 50;
+    Map<String, Integer> readBudgets = new HashMap<>();
+
+    public int budgetFor(String method, String uri) {
+        if ("GET".equals(method)) {
+            return readBudgets.getOrDefault(uri, statementBudget);
+        }
+        return statementBudget;
+    }
+}